@@ -0,0 +1,134 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.repository.UserRepository;
+import com.example.restaurant.security.jwt.AuthTokenFilter;
+import com.example.restaurant.security.jwt.JwtAuthenticationCache;
+import com.example.restaurant.security.jwt.JwtUtils;
+import com.example.restaurant.security.jwt.TokenRevocationRegistry;
+import com.example.restaurant.security.services.UserDetailsImpl;
+import com.example.restaurant.security.services.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT handling on the request path: the old validate-then-parse sequence, a single parse,
+ * and the full AuthTokenFilter with its verified-token cache. The user lookup is stubbed so the
+ * numbers isolate token work from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean trustClaims;
+
+    private AnnotationConfigApplicationContext context;
+    private JwtUtils jwtUtils;
+    private AuthTokenFilter filter;
+    private String token;
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    public static class StubUserDetailsService extends UserDetailsServiceImpl {
+        @Override
+        public UserDetails loadUserByUsername(String username) {
+            return new UserDetailsImpl(1L, username, username + "@example.com", "hash", "Bench", "User",
+                    List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "restaurant.app.jwtSecret", "BenchmarkSecretThatIsLongEnoughForHmacSha256Signing!!",
+                "restaurant.app.jwtExpirationMs", "3600000",
+                "restaurant.app.jwtTrustClaims", Boolean.toString(trustClaims))));
+        context.register(JwtUtils.class, JwtAuthenticationCache.class, TokenRevocationRegistry.class,
+                StubUserDetailsService.class);
+        // Satisfies UserDetailsServiceImpl's injection point; only the revocation mark lookup is answered (no mark)
+        context.registerBean(UserRepository.class, () -> (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        case "toString": return "UserRepository stub";
+                        case "findTokensNotBefore": return Optional.empty();
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+        context.registerBean(AuthTokenFilter.class);
+        context.refresh();
+
+        jwtUtils = context.getBean(JwtUtils.class);
+        filter = context.getBean(AuthTokenFilter.class);
+
+        UserDetailsImpl principal = (UserDetailsImpl) new StubUserDetailsService().loadUserByUsername("bench");
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // The pre-change filter: two full parses with signature verification
+    @Benchmark
+    public String validateThenParse() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUserNameFromJwtToken(token) : null;
+    }
+
+    @Benchmark
+    public Object parseOnce() {
+        return jwtUtils.parseValidClaims(token);
+    }
+
+    // Steady state: the token is already in the verified-token cache
+    @Benchmark
+    public Object filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    // Cache miss every time: one parse plus principal construction (claims or stubbed lookup)
+    @Benchmark
+    public Object filterRequestUncached() throws Exception {
+        context.getBean(JwtAuthenticationCache.class).invalidateAll();
+        return filterRequest();
+    }
+}
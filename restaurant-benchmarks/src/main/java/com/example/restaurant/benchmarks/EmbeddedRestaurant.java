@@ -0,0 +1,49 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.RestaurantApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts the real application context against an in-memory H2 database, so service-level benchmarks
+ * exercise the same beans and Hibernate settings as production. The security configuration needs the
+ * MVC infrastructure, so a servlet context is started on a random port and simply left idle.
+ */
+final class EmbeddedRestaurant {
+
+    private EmbeddedRestaurant() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, Map.of());
+    }
+
+    // overrides are applied on top of the embedded defaults
+    static ConfigurableApplicationContext start(String databaseName, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("server.port", "0");
+        // No fixed management port, so several forks can run side by side
+        properties.put("management.server.port", "-1");
+        properties.putAll(overrides);
+
+        // Passed as command-line arguments so they override application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+
+        SpringApplication application = new SpringApplication(RestaurantApplication.class);
+        return application.run(args);
+    }
+}
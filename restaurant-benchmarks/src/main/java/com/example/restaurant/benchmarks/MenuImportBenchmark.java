@@ -0,0 +1,142 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.dto.MenuImportResult;
+import com.example.restaurant.dto.MenuPriceAdjustment;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.service.MenuCatalogCache;
+import com.example.restaurant.service.MenuItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nightly menu sync of a 10k-item catalog on embedded H2. Every invocation starts from the same
+ * stored menu. perItemUpdates is the old path (one updateMenuItem transaction per item, as the sync
+ * made one PUT per item); the import* methods send the whole catalog to upsertMenuItems, with
+ * nothing, 10% or everything (new items) to write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MenuImportBenchmark {
+
+    @Param({"10000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private MenuItemService menuItemService;
+    private JdbcTemplate jdbcTemplate;
+    private List<MenuItem> stored;
+    private List<MenuItem> unchanged;
+    private List<MenuItem> tenPercentChanged;
+    private List<MenuItem> allNew;
+    private MenuPriceAdjustment onePercentUp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedRestaurant.start("menuimport");
+        menuItemService = context.getBean(MenuItemService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<MenuItem> catalog = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            catalog.add(item(null, "Dish " + i, 500 + 25L * (i % 40)));
+        }
+        menuItemService.upsertMenuItems(catalog);
+        stored = jdbcTemplate.query("SELECT id, name, price_cents FROM menu_items ORDER BY id",
+                (rs, row) -> item(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+
+        unchanged = new ArrayList<>(items);
+        tenPercentChanged = new ArrayList<>(items);
+        allNew = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            MenuItem current = stored.get(i);
+            unchanged.add(item(null, current.getName(), current.getPrice().getCents()));
+            long price = current.getPrice().getCents() + (i % 10 == 0 ? 50 : 0);
+            tenPercentChanged.add(item(null, current.getName(), price));
+            allNew.add(item(null, "New dish " + i, 900));
+        }
+
+        onePercentUp = new MenuPriceAdjustment();
+        onePercentUp.setPercent(BigDecimal.ONE);
+    }
+
+    // Puts the stored menu back exactly as it was (same ids), without going through the code under test
+    @Setup(Level.Invocation)
+    public void resetMenu() {
+        jdbcTemplate.update("DELETE FROM menu_items");
+        List<Object[]> rows = new ArrayList<>(stored.size());
+        for (MenuItem item : stored) {
+            rows.add(new Object[]{item.getId(), item.getName(), item.getDescription(), item.getPrice().getCents(),
+                    item.getCategory(), item.getImageUrl()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO menu_items (id, name, description, price_cents, category, image_url)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", rows);
+        context.getBean(MenuCatalogCache.class).invalidate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int perItemUpdates() {
+        for (int i = 0; i < items; i++) {
+            menuItemService.updateMenuItem(stored.get(i).getId(), tenPercentChanged.get(i));
+        }
+        return items;
+    }
+
+    @Benchmark
+    public MenuImportResult importUnchanged() {
+        return menuItemService.upsertMenuItems(unchanged);
+    }
+
+    @Benchmark
+    public MenuImportResult importTenPercentChanged() {
+        return menuItemService.upsertMenuItems(tenPercentChanged);
+    }
+
+    @Benchmark
+    public MenuImportResult importAllNew() {
+        return menuItemService.upsertMenuItems(allNew);
+    }
+
+    @Benchmark
+    public MenuImportResult adjustAllPrices() {
+        return menuItemService.adjustPrices(onePercentUp);
+    }
+
+    private static MenuItem item(Long id, String name, long priceCents) {
+        MenuItem item = new MenuItem();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("Benchmark dish");
+        item.setCategory("Category " + (name.hashCode() & 7));
+        item.setImageUrl("https://cdn.example.com/menu/" + name.replace(' ', '-') + ".jpg");
+        item.setPrice(Money.ofCents(priceCents));
+        return item;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MenuSearchIndex over a generated 10k-item catalog: 25 locations, each with its own variants of the
+ * same dishes, so common terms have long posting lists. linearScan is the client-side filter the
+ * search box used before (substring match over name and description of every item).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuSearchBenchmark {
+
+    private static final String[] LOCATIONS = {
+            "Downtown", "Harbour", "Airport", "Uptown", "Riverside", "Old Town", "Market", "Station", "Campus",
+            "Lakeside", "Hillcrest", "Midtown", "Parkview", "Seaside", "Westend", "Eastgate", "Northpoint",
+            "Southbank", "Bayview", "Greenfield", "Kingsway", "Queensgate", "Millbrook", "Stonebridge", "Fairview"};
+    private static final String[] DISHES = {
+            "Margherita Pizza", "Pepperoni Pizza", "Chicken Tikka Masala", "Butter Chicken", "Paneer Tikka",
+            "Caesar Salad", "Greek Salad", "Beef Burger", "Veggie Burger", "Fish and Chips", "Pad Thai",
+            "Green Curry", "Ramen", "Chicken Biryani", "Lamb Rogan Josh", "Falafel Wrap", "Tiramisu",
+            "Chocolate Brownie", "Mango Lassi", "Masala Chai", "Penne Arrabbiata", "Spaghetti Carbonara",
+            "Mushroom Risotto", "Garlic Naan", "Samosa", "Spring Rolls", "Miso Soup", "Tom Yum Soup",
+            "Chicken Wings", "Nachos", "Quesadilla", "Burrito Bowl", "Tacos al Pastor", "Churros",
+            "Cheesecake", "Apple Pie", "Lemonade", "Iced Tea", "Espresso", "Cappuccino"};
+    private static final String[] CATEGORIES = {"Mains", "Starters", "Desserts", "Drinks", "Sides", "Specials"};
+    private static final String[] DESCRIPTIONS = {
+            "slow cooked with aromatic spices", "wood fired and topped with fresh basil", "served with rice and salad",
+            "house favourite with a crispy crust", "made with seasonal vegetables", "finished with herbs and olive oil",
+            "rich and creamy", "spicy and tangy", "served chilled", "freshly baked every morning"};
+
+    @Param({"10000"})
+    public int items;
+
+    @Param({"chicken", "chicken tikka", "marg", "chiken tika", "mushroom risotto harbour"})
+    public String query;
+
+    private MenuSearchIndex index;
+    private List<MenuItem> catalog;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String location = LOCATIONS[i % LOCATIONS.length];
+            MenuItem item = new MenuItem();
+            item.setId((long) i + 1);
+            item.setName(DISHES[random.nextInt(DISHES.length)] + (i % 3 == 0 ? " Special" : "") + " " + location);
+            item.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setDescription(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)] + ", " + location + " kitchen #" + i);
+            item.setPrice(Money.ofCents(299 + random.nextInt(2500)));
+            catalog.add(item);
+        }
+        index = new MenuSearchIndex();
+        index.rebuild(catalog);
+    }
+
+    @Benchmark
+    public List<MenuItem> search() {
+        return index.search(query, null, 20);
+    }
+
+    @Benchmark
+    public List<MenuItem> linearScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<MenuItem> results = new ArrayList<>();
+        for (MenuItem item : catalog) {
+            if (item.getName().toLowerCase(Locale.ROOT).contains(needle)
+                    || item.getDescription().toLowerCase(Locale.ROOT).contains(needle)) {
+                results.add(item);
+                if (results.size() == 20) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public MenuSearchIndex rebuildIndex() {
+        MenuSearchIndex fresh = new MenuSearchIndex();
+        fresh.rebuild(catalog);
+        return fresh;
+    }
+}
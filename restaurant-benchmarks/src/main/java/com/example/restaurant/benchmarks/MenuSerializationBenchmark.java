@@ -0,0 +1,79 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of rendering the menu per request (what the controller did before MenuJsonCache)
+ * versus handing out the body rendered once per catalog version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuSerializationBenchmark {
+
+    @Param({"50", "500"})
+    public int menuSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private List<MenuItem> menu;
+    private byte[] preRendered;
+
+    @Setup
+    public void setUp() throws IOException {
+        menu = new ArrayList<>(menuSize);
+        for (int i = 0; i < menuSize; i++) {
+            MenuItem item = new MenuItem();
+            item.setId((long) i);
+            item.setName("Dish " + i);
+            item.setDescription("A reasonably descriptive menu text for dish number " + i);
+            item.setCategory("Category " + (i % 8));
+            item.setPrice(Money.ofCents(500 + 25L * (i % 20)));
+            item.setImageUrl("https://cdn.example.com/menu/" + i + ".jpg");
+            menu.add(item);
+        }
+        preRendered = objectMapper.writeValueAsBytes(menu);
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(menu);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzipPerRequest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(objectMapper.writeValueAsBytes(menu));
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] preRendered() {
+        return preRendered;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.repository.MenuItemRepository;
+import com.example.restaurant.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end OrderService.createOrder against embedded H2: menu item resolution, id generation,
+ * batched inserts and event publication. Latency is reported per order for each line count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class OrderCreationBenchmark {
+
+    private static final int MENU_SIZE = 100;
+
+    @Param({"1", "5", "15", "50"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CustomerOrder request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedRestaurant.start("orders" + lines);
+        orderService = context.getBean(OrderService.class);
+
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < MENU_SIZE; i++) {
+            MenuItem item = new MenuItem();
+            item.setName("Dish " + i);
+            item.setDescription("Benchmark dish " + i);
+            item.setCategory("Category " + (i % 8));
+            item.setPrice(Money.ofCents(500 + 25L * (i % 20)));
+            menu.add(item);
+        }
+        menu = context.getBean(MenuItemRepository.class).saveAll(menu);
+
+        request = new CustomerOrder();
+        request.setCustomerName("benchmark");
+        for (int i = 0; i < lines; i++) {
+            MenuItem reference = new MenuItem();
+            reference.setId(menu.get(i % MENU_SIZE).getId());
+            OrderItem item = new OrderItem();
+            item.setMenuItem(reference);
+            item.setQuantity(1 + i % 3);
+            request.getOrderItems().add(item);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerOrder createOrder() {
+        return orderService.createOrder(request);
+    }
+}
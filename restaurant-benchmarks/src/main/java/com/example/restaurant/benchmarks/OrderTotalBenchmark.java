@@ -0,0 +1,94 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.model.OrderTotals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order totals over orders of increasing size: the cents-based CustomerOrder.calculateTotalPrice
+ * and OrderTotals (discount plus two tax lines), against the old double stream sum.
+ * Run with -prof gc to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "15", "100"})
+    public int lines;
+
+    private CustomerOrder order;
+    private List<LegacyLine> legacyLines;
+
+    // Shape of OrderItem before prices moved to cents
+    private static final class LegacyLine {
+        private final int quantity;
+        private final double unitPrice;
+
+        private LegacyLine(int quantity, double unitPrice) {
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+        }
+
+        int getQuantity() { return quantity; }
+        double getUnitPrice() { return unitPrice; }
+    }
+
+    @Setup
+    public void setUp() {
+        order = new CustomerOrder();
+        legacyLines = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId((long) i);
+            menuItem.setPrice(Money.ofCents(499 + 100L * i));
+
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            item.setQuantity(1 + i % 4);
+            item.setUnitPrice(menuItem.getPrice());
+            order.addOrderItem(item);
+
+            legacyLines.add(new LegacyLine(item.getQuantity(), 4.99 + i));
+        }
+    }
+
+    @Benchmark
+    public CustomerOrder calculateTotalPrice() {
+        order.calculateTotalPrice();
+        return order;
+    }
+
+    @Benchmark
+    public long totalsWithDiscountAndTax() {
+        return OrderTotals.compute(order.getOrderItems(), 250, 600, 225).getTotalCents();
+    }
+
+    // The pre-migration implementation: boxed stream over doubles
+    @Benchmark
+    public double legacyDoubleStreamSum() {
+        return legacyLines.stream()
+                .mapToDouble(item -> item.getQuantity() * item.getUnitPrice())
+                .sum();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.security.services.ThrottledPasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign-in cost per core: one password check at each bcrypt strength, so ops/s is how many logins a
+ * single core can verify. bcrypt is the bare encoder; encoder is the production chain (delegating
+ * encoder with the {bcrypt} prefix, behind the ThrottledPasswordEncoder permit), to show the wrapping
+ * adds nothing measurable. Run with -t N to see the throttle hold throughput at the permit count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private PasswordEncoder encoder;
+    private String bareHash;
+    private String prefixedHash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        encoder = new ThrottledPasswordEncoder(delegating, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 60_000);
+        bareHash = bcrypt.encode(PASSWORD);
+        prefixedHash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean bcrypt() {
+        return bcrypt.matches(PASSWORD, bareHash);
+    }
+
+    @Benchmark
+    public boolean encoder() {
+        return encoder.matches(PASSWORD, prefixedHash);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.security.ratelimit.RateLimitFilter;
+import com.example.restaurant.security.ratelimit.RateLimiter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost RateLimitFilter adds to a request, with limits high enough that nothing is rejected.
+ * oneClient has every thread hitting the same bucket (worst-case CAS contention); manyClients
+ * spreads requests over 10k clients; filterRequest is the whole filter on an anonymous menu read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of()));
+        rateLimiter = new RateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "environment", environment);
+        ReflectionTestUtils.setField(rateLimiter, "defaultPerSecond", 1e9);
+        ReflectionTestUtils.setField(rateLimiter, "defaultBurst", 1_000_000);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 100_000);
+        rateLimiter.init();
+
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long oneClient() {
+        return rateLimiter.tryAcquire(RateLimiter.MENU, "ip:10.0.0.1");
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return rateLimiter.tryAcquire(RateLimiter.MENU, clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/menu");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    // The same request through no filter at all, to separate mock request setup from the limiter
+    @Benchmark
+    public MockHttpServletResponse baselineRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/menu");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NO_OP_CHAIN.doFilter(request, response);
+        return response;
+    }
+}
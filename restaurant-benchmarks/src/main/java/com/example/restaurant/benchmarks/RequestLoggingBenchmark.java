@@ -0,0 +1,151 @@
+package com.example.restaurant.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.restaurant.logging.LogSampler;
+import com.example.restaurant.logging.OrderLogSummary;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the order-creation log lines in OrderController, with a synchronous and an async appender
+ * writing the console pattern to a discarding stream (so the numbers show formatting and hand-off,
+ * not terminal speed).
+ * <p>
+ * legacyToString is the old pair of INFO lines, the first formatting the whole order graph through
+ * Lombok's toString. summary is the key-value line that replaced it; sampledSummary adds the
+ * production 1-in-100 sampling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private Logger logger;
+    private Appender<ILoggingEvent> appender;
+    private LogSampler sampler;
+    private CustomerOrder order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level [%15.15thread] %-40.40logger{39} : %msg %kvp%n%ex");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(OutputStream.nullOutputStream());
+        output.start();
+        appender = output;
+
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(output);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        logger = context.getLogger("com.example.restaurant.controller.OrderController.bench");
+        logger.setAdditive(false);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.addAppender(appender);
+
+        sampler = new LogSampler();
+        ReflectionTestUtils.setField(sampler, "environment", new StandardEnvironment());
+        ReflectionTestUtils.setField(sampler, "defaultSampleEvery", 100);
+
+        order = new CustomerOrder();
+        order.setId(4711L);
+        order.setCustomerName("Jane Customer");
+        for (int i = 0; i < 5; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId((long) i + 1);
+            menuItem.setName("Dish " + i);
+            menuItem.setDescription("Slow-cooked house special with seasonal vegetables and a side of rice " + i);
+            menuItem.setCategory("Mains");
+            menuItem.setImageUrl("https://cdn.example.com/menu/dish-" + i + ".jpg");
+            menuItem.setPrice(Money.ofCents(1299 + 100L * i));
+
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            item.setQuantity(1 + i % 3);
+            item.setUnitPrice(menuItem.getPrice());
+            order.addOrderItem(item);
+        }
+        order.calculateTotalPrice();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.detachAppender(appender);
+        appender.stop();
+    }
+
+    @Benchmark
+    public void legacyToString() {
+        logger.info("Received request to create order: {}", order);
+        logger.info("Order created successfully with ID: {}", order.getId());
+    }
+
+    @Benchmark
+    public void summary() {
+        logSummary();
+    }
+
+    @Benchmark
+    public void sampledSummary() {
+        if (sampler.sample("orders.create")) {
+            logSummary();
+        }
+    }
+
+    private void logSummary() {
+        logger.atInfo().setMessage("Order created")
+                .addKeyValue("lines", OrderLogSummary.lineCount(order))
+                .addKeyValue("quantity", OrderLogSummary.totalQuantity(order))
+                .addKeyValue("menuItemIds", OrderLogSummary.menuItemIds(order))
+                .addKeyValue("orderId", order.getId())
+                .log();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.restaurant.benchmarks;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.User;
+import com.example.restaurant.repository.MenuItemRepository;
+import com.example.restaurant.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual request threads over real HTTP: order creation and the menu read, with more
+ * concurrent clients (256) than Tomcat's default 200 platform threads. Each mode runs with the
+ * HikariCP settings its properties file uses (10 connections by default; 30 with a 5s connection
+ * timeout in the virtual-threads profile).
+ * Throughput mode gives requests per second; SampleTime gives the latency distribution, read p99
+ * from its p0.99 line.
+ * <p>
+ * The virtual setting needs a Java 21 JVM (build the restaurant jar with -Pjava21 and run this jar on
+ * 21); on older JVMs that trial fails at setup rather than silently measuring platform threads.
+ * H2 answers from memory, so this shows thread and pool overhead; against MySQL the request spends
+ * longer blocked on the connection, which is where virtual threads differ most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class RequestThreadsBenchmark {
+
+    private static final int MENU_SIZE = 50;
+
+    @Param({"platform", "virtual"})
+    public String requestThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest createOrder;
+    private HttpRequest readMenu;
+
+    @Setup
+    public void setUp() throws Exception {
+        boolean virtual = "virtual".equals(requestThreads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual request threads need Java 21+, running on " + Runtime.version());
+        }
+        context = EmbeddedRestaurant.start("threads" + requestThreads, Map.of(
+                "spring.threads.virtual.enabled", Boolean.toString(virtual),
+                "spring.datasource.hikari.maximum-pool-size", virtual ? "30" : "10",
+                "spring.datasource.hikari.connection-timeout", virtual ? "5000" : "30000",
+                "restaurant.app.rateLimit.enabled", "false",
+                "restaurant.app.security.bcryptStrength", "4"));
+
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < MENU_SIZE; i++) {
+            MenuItem item = new MenuItem();
+            item.setName("Dish " + i);
+            item.setCategory("Category " + (i % 5));
+            item.setPrice(Money.ofCents(500 + 25L * i));
+            menu.add(item);
+        }
+        menu = context.getBean(MenuItemRepository.class).saveAll(menu);
+        context.getBean(UserRepository.class).save(new User("bench", "bench@example.com",
+                context.getBean(PasswordEncoder.class).encode("bench-password")));
+
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> signin = client.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/signin"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"bench\",\"password\":\"bench-password\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = new ObjectMapper().readTree(signin.body()).get("token").asText();
+
+        String order = "{\"customerName\":\"bench\",\"orderItems\":[{\"menuItem\":{\"id\":" + menu.get(0).getId()
+                + "},\"quantity\":2},{\"menuItem\":{\"id\":" + menu.get(1).getId() + "},\"quantity\":1}]}";
+        createOrder = HttpRequest.newBuilder(URI.create(base + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(order))
+                .build();
+        readMenu = HttpRequest.newBuilder(URI.create(base + "/api/menu")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createOrder() throws IOException, InterruptedException {
+        return send(createOrder, 201);
+    }
+
+    @Benchmark
+    public int readMenu() throws IOException, InterruptedException {
+        return send(readMenu, 200);
+    }
+
+    private int send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != expectedStatus) {
+            throw new IllegalStateException(request.uri() + " returned " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.restaurant.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Hibernate's pooled table generator, fetching each id block on a connection from {@link IdBlockPool}.
+ * <p>
+ * Hibernate fetches a block on a second connection while the transaction that needs the id holds its
+ * first, and other transactions wait for that block on the optimizer's lock holding theirs. Once the
+ * waiters fill the application pool the fetch can never get its connection, and every one of them stalls
+ * until the connection-timeout. The id pool is used only here, so the fetch always gets one.
+ * Without an IdBlockPool (JPA slice tests) it falls back to Hibernate's isolated connection.
+ */
+public class IdBlockGenerator extends TableGenerator {
+
+    public static final String POOL_SETTING = "restaurant.ids.pool";
+
+    private DataSource pool;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        super.configure(type, parameters, serviceRegistry);
+        pool = (DataSource) serviceRegistry.getService(ConfigurationService.class).getSettings().get(POOL_SETTING);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (pool == null) {
+            return super.generate(session, object);
+        }
+        return getOptimizer().generate(new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return IdentifierGeneratorHelper.getIntegralDataTypeHolder(getIdentifierType().getReturnedClass())
+                        .initialize(nextBlock());
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return session.getTenantIdentifier();
+            }
+        });
+    }
+
+    // Same contract as TableGenerator: returns the stored value and advances it by one increment
+    private long nextBlock() {
+        String select = "SELECT " + getValueColumnName() + " FROM " + getTableName()
+                + " WHERE " + getSegmentColumnName() + " = ? FOR UPDATE";
+        String insert = "INSERT INTO " + getTableName() + " (" + getSegmentColumnName() + ", " + getValueColumnName() + ") VALUES (?, ?)";
+        String update = "UPDATE " + getTableName() + " SET " + getValueColumnName() + " = ? WHERE " + getSegmentColumnName() + " = ?";
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long value;
+                try (PreparedStatement statement = connection.prepareStatement(select)) {
+                    statement.setString(1, getSegmentValue());
+                    try (ResultSet rs = statement.executeQuery()) {
+                        value = rs.next() ? rs.getLong(1) : -1;
+                    }
+                }
+                if (value < 0) {
+                    value = getInitialValue();
+                    try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                        statement.setString(1, getSegmentValue());
+                        statement.setLong(2, value);
+                        statement.executeUpdate();
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(update)) {
+                    statement.setLong(1, value + getIncrementSize());
+                    statement.setString(2, getSegmentValue());
+                    statement.executeUpdate();
+                }
+                connection.commit();
+                return value;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("Could not fetch an id block for '" + getSegmentValue() + "'", e);
+        }
+    }
+}
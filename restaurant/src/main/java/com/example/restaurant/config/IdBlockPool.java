@@ -0,0 +1,56 @@
+package com.example.restaurant.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * A small connection pool of its own for fetching id blocks (see {@link IdBlockGenerator}), with the same
+ * database settings as the application pool. Handed to Hibernate as a setting rather than declared as a
+ * DataSource bean, which would replace the auto-configured one.
+ */
+@Configuration
+public class IdBlockPool {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${restaurant.app.ids.poolSize:2}")
+    private int poolSize;
+
+    private HikariDataSource pool;
+
+    @Bean
+    HibernatePropertiesCustomizer idBlockPoolSetting() throws SQLException {
+        // Only a Hikari pool can be copied; without one the generator uses Hibernate's own isolated connection
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariConfig config = new HikariConfig();
+            dataSource.unwrap(HikariDataSource.class).copyStateTo(config);
+            config.setPoolName("id-blocks");
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(1);
+            pool = new HikariDataSource(config);
+        }
+        return properties -> {
+            if (pool != null) {
+                properties.put(IdBlockGenerator.POOL_SETTING, pool);
+            }
+        };
+    }
+
+    // Runs after the EntityManagerFactory is closed, since it depends on the customizer above
+    @PreDestroy
+    public void close() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.restaurant.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves the pooled id generators past the highest existing id of each table.
+ * Databases created while the entities still used IDENTITY already have rows, and a fresh
+ * generator row would otherwise hand out ids that collide with them.
+ * Runs during context refresh (after Hibernate's schema update), before the web server accepts requests.
+ */
+@Component
+public class IdGeneratorSeeder implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // Must match increment_size on the IdBlockGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+
+    // generator row -> table whose ids it hands out
+    private static final Map<String, String> GENERATED_TABLES = new LinkedHashMap<>();
+    static {
+        GENERATED_TABLES.put("customer_orders", "customer_orders");
+        GENERATED_TABLES.put("order_items", "order_items");
+        GENERATED_TABLES.put("menu_items", "menu_items");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so this bean is initialised after the schema exists
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterPropertiesSet() {
+        GENERATED_TABLES.forEach(this::seed);
+    }
+
+    private void seed(String generator, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        // Clear a whole allocation block regardless of how the pooled optimizer interprets the stored value
+        long floor = maxId + ALLOCATION_SIZE + 1;
+
+        Long current = jdbcTemplate.query("SELECT next_val FROM id_generators WHERE sequence_name = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, generator);
+        if (current == null) {
+            jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", generator, floor);
+            logger.info("Initialised id generator '{}' at {}", generator, floor);
+        } else if (current < floor) {
+            jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ?", floor, generator);
+            logger.info("Advanced id generator '{}' from {} to {}", generator, current, floor);
+        }
+    }
+}
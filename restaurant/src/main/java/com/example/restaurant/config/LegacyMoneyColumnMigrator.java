@@ -0,0 +1,101 @@
+package com.example.restaurant.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Migration of the old DOUBLE price columns to BIGINT cents.
+ * Hibernate's schema update adds the *_cents columns; this copies the old values across (rounded to the cent)
+ * and makes the old NOT NULL columns nullable so inserts that no longer mention them succeed.
+ * The old columns are kept, so a rollback to the previous release still finds its data. Dropping them is
+ * an explicit step: set restaurant.app.migration.dropLegacyMoneyColumns=true for one start once the
+ * release is final. Does nothing once the old columns are gone.
+ */
+@Component
+public class LegacyMoneyColumnMigrator implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyMoneyColumnMigrator.class);
+
+    // table, legacy DOUBLE column, new cents column
+    private static final String[][] MONEY_COLUMNS = {
+            {"menu_items", "price", "price_cents"},
+            {"order_items", "unit_price", "unit_price_cents"},
+            {"customer_orders", "total_price", "total_price_cents"},
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Injected only so this bean is initialised after the schema update has added the new columns
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${restaurant.app.migration.dropLegacyMoneyColumns:false}")
+    private boolean dropLegacyColumns;
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        for (String[] column : MONEY_COLUMNS) {
+            Boolean nullable = legacyColumnNullable(column[0], column[1]);
+            if (nullable != null) {
+                migrate(column[0], column[1], column[2], nullable);
+            }
+        }
+    }
+
+    private void migrate(String table, String legacyColumn, String centsColumn, boolean nullable) {
+        int copied = jdbcTemplate.update("UPDATE " + table + " SET " + centsColumn + " = ROUND(" + legacyColumn + " * 100)"
+                + " WHERE " + centsColumn + " IS NULL");
+        if (dropLegacyColumns) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + legacyColumn);
+            logger.info("Migrated {}.{} to {} ({} rows) and dropped the old column", table, legacyColumn, centsColumn, copied);
+            return;
+        }
+        if (!nullable) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY COLUMN " + legacyColumn + " DOUBLE NULL");
+        }
+        if (copied > 0 || !nullable) {
+            logger.info("Migrated {}.{} to {} ({} rows); the old column is kept until dropLegacyMoneyColumns is set",
+                    table, legacyColumn, centsColumn, copied);
+        }
+    }
+
+    // Whether the legacy column accepts NULL, or null if it no longer exists
+    private Boolean legacyColumnNullable(String table, String column) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            ResultSet columns = metaData.getColumns(connection.getCatalog(), null, tableName, null);
+            try {
+                while (columns.next()) {
+                    if (column.equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                        return columns.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+                    }
+                }
+                return null;
+            } finally {
+                JdbcUtils.closeResultSet(columns);
+            }
+        } finally {
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+}
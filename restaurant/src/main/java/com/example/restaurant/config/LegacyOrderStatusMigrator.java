@@ -0,0 +1,63 @@
+package com.example.restaurant.config;
+
+import com.example.restaurant.model.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Brings order statuses stored as free-form text in line with the enum, so SQL filters and entity reads agree.
+ * Values that differ from a status only in case or surrounding spaces are rewritten to the enum name. Anything
+ * else is left as it is and listed here: those orders read as {@link OrderStatus#UNKNOWN} until someone moves
+ * them to a real status. Runs on every start; once the data is clean it only runs one indexed query.
+ */
+@Component
+public class LegacyOrderStatusMigrator implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyOrderStatusMigrator.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so this bean is initialised after the schema exists
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterPropertiesSet() {
+        Set<String> names = Arrays.stream(OrderStatus.values()).filter(OrderStatus::isKnown)
+                .map(OrderStatus::name).collect(Collectors.toSet());
+        String known = names.stream().map(name -> "'" + name + "'").collect(Collectors.joining(", "));
+        List<Map<String, Object>> nonCanonical = jdbcTemplate.queryForList(
+                "SELECT status, COUNT(*) AS orders FROM customer_orders WHERE status NOT IN (" + known + ") GROUP BY status");
+        if (nonCanonical.isEmpty()) {
+            return;
+        }
+
+        int normalized = jdbcTemplate.update("UPDATE customer_orders SET status = UPPER(TRIM(status))"
+                + " WHERE status NOT IN (" + known + ") AND UPPER(TRIM(status)) IN (" + known + ")");
+        if (normalized > 0) {
+            logger.info("Normalized the status of {} orders to the enum names", normalized);
+        }
+
+        String unknown = nonCanonical.stream()
+                .filter(row -> !names.contains(((String) row.get("status")).trim().toUpperCase(Locale.ROOT)))
+                .map(row -> "'" + row.get("status") + "' (" + row.get("orders") + ")")
+                .collect(Collectors.joining(", "));
+        if (!unknown.isEmpty()) {
+            logger.warn("Orders with unknown statuses, read as {} and left out of sales reports until they are moved "
+                    + "to a real status: {}", OrderStatus.UNKNOWN, unknown);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.restaurant.config;
+
+import com.example.restaurant.security.jwt.JwtAuthenticationCache;
+import com.example.restaurant.security.ratelimit.RateLimiter;
+import com.example.restaurant.security.services.ThrottledPasswordEncoder;
+import com.example.restaurant.service.IdempotencyStore;
+import com.example.restaurant.service.MenuCatalogCache;
+import com.example.restaurant.service.OrderIntakeService;
+import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.OrderStreamService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Metrics exposed at /actuator/prometheus (management port).
+ * <p>
+ * Service methods carry {@code @Timed} for per-stage latency; the binder below publishes the
+ * counters and sizes the caches and queues already keep, so they cost nothing extra on the hot path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Makes @Timed work on any Spring bean, not just controllers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder restaurantMeters(MenuCatalogCache menuCatalogCache,
+                                        JwtAuthenticationCache jwtAuthenticationCache,
+                                        IdempotencyStore idempotencyStore,
+                                        OrderStreamService orderStreamService,
+                                        OrderService orderService,
+                                        RateLimiter rateLimiter,
+                                        PasswordEncoder passwordEncoder,
+                                        ObjectProvider<OrderIntakeService> orderIntakeService) {
+        return registry -> {
+            FunctionCounter.builder("restaurant.menu.cache.requests", menuCatalogCache, MenuCatalogCache::getHitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("restaurant.menu.cache.requests", menuCatalogCache, MenuCatalogCache::getMissCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("restaurant.menu.cache.rebuilds", menuCatalogCache, MenuCatalogCache::getRebuildCount)
+                    .register(registry);
+
+            Gauge.builder("restaurant.auth.token.cache.size", jwtAuthenticationCache, JwtAuthenticationCache::size)
+                    .register(registry);
+            Gauge.builder("restaurant.idempotency.keys", idempotencyStore, IdempotencyStore::size)
+                    .register(registry);
+            FunctionCounter.builder("restaurant.idempotency.persist.failures", idempotencyStore, IdempotencyStore::getPersistFailureCount)
+                    .register(registry);
+            Gauge.builder("restaurant.orders.stream.subscribers", orderStreamService, OrderStreamService::getSubscriberCount)
+                    .register(registry);
+            FunctionCounter.builder("restaurant.orders.stream.rejected", orderStreamService, OrderStreamService::getRejectedSubscriptionCount)
+                    .register(registry);
+
+            // Conflict rate: divide by the restaurant.orders.status.update timer count
+            FunctionCounter.builder("restaurant.orders.status.conflicts", orderService, OrderService::getStatusConflictCount)
+                    .tag("outcome", "retried").register(registry);
+            FunctionCounter.builder("restaurant.orders.status.conflicts", orderService, OrderService::getStatusConflictsExhaustedCount)
+                    .tag("outcome", "exhausted").register(registry);
+
+            Gauge.builder("restaurant.ratelimit.keys", rateLimiter, RateLimiter::getTrackedKeys)
+                    .register(registry);
+            for (String group : RateLimiter.GROUPS) {
+                FunctionCounter.builder("restaurant.ratelimit.rejected", rateLimiter, limiter -> limiter.getRejectedCount(group))
+                        .tag("group", group).register(registry);
+            }
+            FunctionCounter.builder("restaurant.ratelimit.untracked", rateLimiter, RateLimiter::getUntrackedCount)
+                    .register(registry);
+
+            if (passwordEncoder instanceof ThrottledPasswordEncoder throttled) {
+                Gauge.builder("restaurant.auth.hash.active", throttled, ThrottledPasswordEncoder::getActiveHashes)
+                        .register(registry);
+                Gauge.builder("restaurant.auth.hash.waiting", throttled, ThrottledPasswordEncoder::getWaitingHashes)
+                        .register(registry);
+                FunctionCounter.builder("restaurant.auth.hash.rejected", throttled, ThrottledPasswordEncoder::getRejectedCount)
+                        .register(registry);
+            }
+
+            // Only present with restaurant.app.orders.intakeMode=async
+            orderIntakeService.ifAvailable(intake -> {
+                Gauge.builder("restaurant.orders.intake.queue.depth", intake, OrderIntakeService::getQueueDepth)
+                        .register(registry);
+                Gauge.builder("restaurant.orders.intake.queue.capacity", intake, OrderIntakeService::getQueueCapacity)
+                        .register(registry);
+                FunctionCounter.builder("restaurant.orders.intake", intake, OrderIntakeService::getAcceptedCount)
+                        .tag("result", "accepted").register(registry);
+                FunctionCounter.builder("restaurant.orders.intake", intake, OrderIntakeService::getRejectedCount)
+                        .tag("result", "rejected").register(registry);
+                FunctionCounter.builder("restaurant.orders.intake", intake, OrderIntakeService::getCommittedCount)
+                        .tag("result", "committed").register(registry);
+                FunctionCounter.builder("restaurant.orders.intake", intake, OrderIntakeService::getFailedCount)
+                        .tag("result", "failed").register(registry);
+                FunctionCounter.builder("restaurant.orders.intake.batches", intake, OrderIntakeService::getBatchCount)
+                        .register(registry);
+            });
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.restaurant.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled housekeeping tasks (idempotency key expiry, etc.)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
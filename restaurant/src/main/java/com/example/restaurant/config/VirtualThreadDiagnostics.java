@@ -0,0 +1,44 @@
+package com.example.restaurant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Startup checks for the virtual-threads profile (spring.threads.virtual.enabled=true).
+ * Spring Boot only switches Tomcat and the task executors to virtual threads on Java 21+, so this
+ * warns when that silently does not happen, and reports whether pinning tracing is on.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            logger.warn("Virtual threads requested but running on Java {}; requests stay on platform threads. "
+                    + "Build with -Pjava21 and run on Java 21+.", javaVersion);
+            return;
+        }
+        // With virtual threads the JDBC pool, not the request thread count, is the concurrency limit
+        logger.info("Request handling runs on virtual threads; database concurrency is capped by HikariCP at {} connections",
+                maximumPoolSize);
+
+        String pinnedTrace = System.getProperty("jdk.tracePinnedThreads");
+        if (pinnedTrace == null) {
+            logger.info("Start with -Djdk.tracePinnedThreads=short to log virtual threads pinned inside synchronized blocks");
+        } else {
+            logger.info("Pinned virtual thread tracing is enabled ({})", pinnedTrace);
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.example.restaurant.config;
 
 import com.example.restaurant.security.jwt.AuthEntryPointJwt;
 import com.example.restaurant.security.jwt.AuthTokenFilter;
+import com.example.restaurant.security.ratelimit.RateLimitFilter;
+import com.example.restaurant.security.services.ThrottledPasswordEncoder;
 import com.example.restaurant.security.services.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; // Make sure this is imported if you use HttpMethod
@@ -15,10 +19,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -30,16 +37,34 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    // Each +1 doubles the CPU cost of every login; hashes made with a lower strength are upgraded on login
+    @Value("${restaurant.app.security.bcryptStrength:10}")
+    private int bcryptStrength;
+
+    // 0: half the available cores
+    @Value("${restaurant.app.security.maxConcurrentHashes:0}")
+    private int maxConcurrentHashes;
+
+    @Value("${restaurant.app.security.hashWaitMs:3000}")
+    private long hashWaitMs;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
     }
 
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rewrites outdated hashes after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -48,9 +73,14 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // New hashes are stored as {bcrypt}...; hashes from before the prefix are plain bcrypt and still match
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        int permits = maxConcurrentHashes > 0 ? maxConcurrentHashes : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ThrottledPasswordEncoder(encoder, permits, hashWaitMs);
     }
 
     @Bean
@@ -65,6 +95,9 @@ public class WebSecurityConfig {
                                 .requestMatchers("/api/auth/**").permitAll() // <<-- CRITICAL FOR REGISTER & LOGIN
                                 .requestMatchers(HttpMethod.GET, "/api/menu/**").permitAll() // Public can view menu
                                 // .requestMatchers("/public-endpoint/**").permitAll() // Add any other public endpoints
+                                // Liveness and the Prometheus scrape; both live on the internal management port
+                                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
 
                                 // AUTHENTICATED ENDPOINTS:
                                 .requestMatchers("/api/orders/**").authenticated() // Example: orders require any authenticated user
@@ -83,6 +116,8 @@ public class WebSecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // After the token filter so the limit can be keyed by user; before any controller or database work
+        http.addFilterAfter(rateLimitFilter(), AuthTokenFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,51 @@
+package com.example.restaurant.controller;
+
+import com.example.restaurant.dto.MenuImportResult;
+import com.example.restaurant.dto.MenuPriceAdjustment;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.service.MenuItemService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/menu") // Admin-only via WebSecurityConfig
+public class AdminMenuController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminMenuController.class);
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    // Nightly catalog sync: creates new items and updates changed ones in one transaction; nothing is deleted
+    @PostMapping("/import")
+    public ResponseEntity<?> importMenu(@RequestBody List<MenuItem> items) {
+        try {
+            long start = System.nanoTime();
+            MenuImportResult result = menuItemService.upsertMenuItems(items);
+            logger.info("Imported {} menu items ({} created, {} updated, {} unchanged) in {} ms", items.size(),
+                    result.getCreated(), result.getUpdated(), result.getUnchanged(), (System.nanoTime() - start) / 1_000_000);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected menu import: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error importing menu: " + e.getMessage());
+        }
+    }
+
+    // Percentage or fixed price change for selected items, a category, or the whole menu
+    @PostMapping("/prices")
+    public ResponseEntity<?> adjustPrices(@RequestBody MenuPriceAdjustment adjustment) {
+        try {
+            MenuImportResult result = menuItemService.adjustPrices(adjustment);
+            logger.info("Adjusted prices: {} updated, {} unchanged", result.getUpdated(), result.getUnchanged());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected price adjustment: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error adjusting prices: " + e.getMessage());
+        }
+    }
+}
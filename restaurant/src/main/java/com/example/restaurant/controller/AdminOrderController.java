@@ -0,0 +1,100 @@
+package com.example.restaurant.controller;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.service.OrderExportService;
+import com.example.restaurant.service.OrderImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api/admin/orders") // Admin-only via WebSecurityConfig
+public class AdminOrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminOrderController.class);
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Value("${restaurant.app.export.timeoutMs:1800000}")
+    private long exportTimeoutMs;
+
+    // Bulk-load historical orders; original orderTime and status are kept
+    @PostMapping("/import")
+    public ResponseEntity<?> importOrders(@RequestBody List<CustomerOrder> orders) {
+        try {
+            long start = System.nanoTime();
+            int imported = orderImportService.importOrders(orders);
+            logger.info("Imported {} orders in {} ms", imported, (System.nanoTime() - start) / 1_000_000);
+            return ResponseEntity.ok(Map.of("imported", imported));
+        } catch (RuntimeException e) {
+            logger.error("Error importing orders: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error importing orders: " + e.getMessage());
+        }
+    }
+
+    // Order history for accounting, streamed as it is read: ?format=ndjson (default) or csv, optional status and [from, to)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        OrderExportService.Format exportFormat;
+        String statusFilter;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+            statusFilter = orderExportService.statusFilter(status);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid order export request: format={}, status={}", format, status);
+            return ResponseEntity.badRequest().build();
+        }
+
+        extendAsyncTimeout(request, exportTimeoutMs);
+        boolean csv = exportFormat == OrderExportService.Format.CSV;
+        StreamingResponseBody body = out -> {
+            long start = System.nanoTime();
+            long exported = orderExportService.export(exportFormat, statusFilter, from, to, out);
+            logger.info("Exported {} orders as {} in {} ms", exported, exportFormat, (System.nanoTime() - start) / 1_000_000);
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // Long exports need more than the default async timeout. Set here, just before the async request
+    // starts, so it applies to this request only.
+    private static void extendAsyncTimeout(HttpServletRequest request, long timeoutMs) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(AdminOrderController.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                        ((AsyncWebRequest) asyncRequest).setTimeout(timeoutMs);
+                    }
+                });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.restaurant.controller;
+
+import com.example.restaurant.dto.ItemSalesView;
+import com.example.restaurant.dto.SalesTotalsView;
+import com.example.restaurant.service.SalesReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+// Sales reports served from the summary tables; cost does not grow with order history
+@RestController
+@RequestMapping("/api/admin/reports") // Admin-only via WebSecurityConfig
+public class AdminReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminReportController.class);
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_ITEMS = 200;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    // Per-day totals, oldest first; defaults to the last 7 days
+    @GetMapping("/daily")
+    public ResponseEntity<List<SalesTotalsView>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(6);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesReportService.dailyTotals(start, end));
+    }
+
+    // Hours of one day that had orders; defaults to today
+    @GetMapping("/hourly")
+    public ResponseEntity<List<SalesTotalsView>> getHourlySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(salesReportService.hourlyTotals(date != null ? date : LocalDate.now()));
+    }
+
+    // Best-selling items by quantity; defaults to the last 30 days and the top 20
+    @GetMapping("/items")
+    public ResponseEntity<List<ItemSalesView>> getTopItems(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_DAYS || limit < 1 || limit > MAX_ITEMS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(salesReportService.topItems(start, end, limit));
+    }
+
+    // Recomputes the summaries from all orders (first deployment, manual data fixes); run outside opening hours
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        long start = System.nanoTime();
+        int orders = salesReportService.rebuild();
+        logger.info("Rebuilt sales reports from {} orders in {} ms", orders, (System.nanoTime() - start) / 1_000_000);
+        return ResponseEntity.ok(Map.of("orders", orders));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.restaurant.controller;
+
+import com.example.restaurant.security.jwt.TokenRevocationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/users") // Admin-only via WebSecurityConfig
+public class AdminUserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminUserController.class);
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    // Invalidate every token issued to the user so far (e.g. after a role change or a lost device)
+    @PostMapping("/{username}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String username) {
+        logger.info("Revoking all tokens for user: {}", username);
+        revocationRegistry.revokeAllTokens(username);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.restaurant.controller;
+
+import com.example.restaurant.dto.JwtResponse;
+import com.example.restaurant.dto.LoginRequest;
+import com.example.restaurant.security.jwt.JwtUtils;
+import com.example.restaurant.security.services.PasswordHashingBusyException;
+import com.example.restaurant.security.services.UserDetailsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/auth") // Public via WebSecurityConfig
+public class AuthController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    // Checks the password (rewriting an outdated hash on success) and issues a JWT
+    @PostMapping("/signin")
+    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+        if (loginRequest.getUsername() == null || loginRequest.getUsername().isBlank()
+                || loginRequest.getPassword() == null || loginRequest.getPassword().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Username and password are required"));
+        }
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+            UserDetailsImpl user = (UserDetailsImpl) authentication.getPrincipal();
+            List<String> roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+            return ResponseEntity.ok(new JwtResponse(jwtUtils.generateJwtToken(authentication),
+                    user.getId(), user.getUsername(), user.getEmail(), roles));
+        } catch (PasswordHashingBusyException e) {
+            logger.warn("Sign-in for {} shed: {}", loginRequest.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", e.getMessage()));
+        } catch (AuthenticationException e) {
+            logger.info("Failed sign-in for {}", loginRequest.getUsername());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid username or password"));
+        }
+    }
+}
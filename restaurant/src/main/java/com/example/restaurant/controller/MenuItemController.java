@@ -2,8 +2,12 @@ package com.example.restaurant.controller;
 
 import com.example.restaurant.model.MenuItem;
 import com.example.restaurant.service.MenuItemService;
+import com.example.restaurant.service.MenuJsonCache;
+import com.example.restaurant.service.MenuSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,10 +20,32 @@ public class MenuItemController {
     @Autowired
     private MenuItemService menuItemService;
 
-    // Get all menu items
+    @Autowired
+    private MenuJsonCache menuJsonCache;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    // Get all menu items (pre-rendered JSON, 304 when the client's ETag is current)
     @GetMapping
-    public List<MenuItem> getAllMenuItems() {
-        return menuItemService.getAllMenuItems();
+    public ResponseEntity<byte[]> getAllMenuItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return renderedResponse(menuJsonCache.allItems(), ifNoneMatch, acceptEncoding);
+    }
+
+    // Ranked, typo-tolerant search over name, category and description, e.g. /api/menu/search?q=chiken%20tikka
+    @GetMapping("/search")
+    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam("q") String query,
+                                                         @RequestParam(required = false) String category,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        if (query.length() > MAX_QUERY_LENGTH || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(menuSearchIndex.search(query, category, limit));
     }
 
     // Get a single menu item by ID
@@ -61,7 +87,59 @@ public class MenuItemController {
 
     // Get menu items by category
     @GetMapping("/category/{categoryName}")
-    public List<MenuItem> getMenuItemsByCategory(@PathVariable String categoryName) {
-        return menuItemService.findByCategory(categoryName);
+    public ResponseEntity<byte[]> getMenuItemsByCategory(
+            @PathVariable String categoryName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return renderedResponse(menuJsonCache.itemsByCategory(categoryName), ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> renderedResponse(MenuJsonCache.RenderedBody body, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? body.getGzipEtag() : body.getEtag();
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return builder.body(body.getGzippedJson());
+        }
+        return builder.body(body.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" means the client explicitly refuses gzip
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
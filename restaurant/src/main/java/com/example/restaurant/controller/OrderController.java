@@ -1,15 +1,37 @@
 package com.example.restaurant.controller; // <--- Ensure package is correct
 
+import com.example.restaurant.dto.IntakeStatusView;
+import com.example.restaurant.dto.OrderPage;
+import com.example.restaurant.dto.OrderStatusView;
+import com.example.restaurant.logging.LogSampler;
+import com.example.restaurant.logging.OrderLogSummary;
 import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.service.IdempotencyStore;
+import com.example.restaurant.service.OrderIntakeService;
 import com.example.restaurant.service.OrderService;
+import com.example.restaurant.service.OrderStreamService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
 import java.util.Map;
 
 @RestController // <--- CRITICAL: This makes it a REST controller
@@ -21,21 +43,68 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderStreamService orderStreamService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LogSampler logSampler;
+
+    // Only present with restaurant.app.orders.intakeMode=async
+    @Autowired(required = false)
+    private OrderIntakeService orderIntakeService;
+
+    @Value("${restaurant.app.orders.intake.retryAfterSeconds:1}")
+    private int intakeRetryAfterSeconds;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // Live feed for kitchen screens. Needs the Bearer header, so clients use a fetch-based SSE client rather than
+    // the native EventSource; see OrderStreamService. Last-Event-ID resumes after a reconnect.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrders(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.atInfo().addKeyValue("lastEventId", lastEventId).log("Kitchen stream subscription");
+        return orderStreamService.subscribe(lastEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("Kitchen stream subscription refused: subscriber limit reached");
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+                });
+    }
+
+    // Paged listing, newest first. Pass the returned nextCursor as ?cursor= to fetch the next page.
     @GetMapping
-    public ResponseEntity<List<CustomerOrder>> getAllOrders() {
-        logger.info("Received request to get all orders"); // Add logging
-        List<CustomerOrder> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage> getOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (logSampler.sample("orders.list")) {
+            logger.atInfo().addKeyValue("status", status).addKeyValue("from", from).addKeyValue("to", to)
+                    .addKeyValue("limit", limit).log("List orders");
+        }
+        try {
+            return ResponseEntity.ok(orderService.findOrders(status, customer, from, to, cursor, limit));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logger.warn("Invalid order listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CustomerOrder> getOrderById(@PathVariable Long id) {
-        logger.info("Received request to get order by ID: {}", id); // Add logging
+        if (logSampler.sample("orders.get")) {
+            logger.atInfo().addKeyValue("orderId", id).log("Get order");
+        }
         return orderService.getOrderById(id)
-                .map(order -> {
-                    logger.info("Found order: {}", order.getId());
-                    return ResponseEntity.ok(order);
-                })
+                .map(ResponseEntity::ok)
                 .orElseGet(() -> {
                     logger.warn("Order not found with ID: {}", id);
                     return ResponseEntity.notFound().build();
@@ -43,37 +112,142 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody CustomerOrder orderRequest) {
-        logger.info("Received request to create order: {}", orderRequest); // Add logging
+    public ResponseEntity<?> createOrder(@RequestBody CustomerOrder orderRequest,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                         Principal principal) {
+        if (idempotencyKey == null) {
+            return doCreateOrder(orderRequest, null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest().body(IDEMPOTENCY_KEY_HEADER + " must be 1-255 characters.");
+        }
+
+        // Keys are per caller, so two users can never collide on the same key
+        String scopeKey = (principal != null ? principal.getName() : "anonymous") + ":" + idempotencyKey;
+        IdempotencyStore.Claim claim = idempotencyStore.begin(scopeKey, requestHash(orderRequest));
+        switch (claim.getOutcome()) {
+            case REPLAY:
+                logger.info("Replaying stored response for idempotency key: {}", idempotencyKey);
+                return ResponseEntity.status(claim.getEntry().getStatusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotent-Replayed", "true")
+                        .body(claim.getEntry().getBody());
+            case IN_PROGRESS:
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("A request with this Idempotency-Key is still being processed.");
+            case KEY_REUSED:
+                return ResponseEntity.unprocessableEntity().body("Idempotency-Key was already used with a different request body.");
+            case FULL:
+                logger.warn("Idempotency store is full of in-flight keys; rejecting order");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(intakeRetryAfterSeconds))
+                        .body("Too many orders in progress, please retry.");
+            default:
+                return doCreateOrder(orderRequest, scopeKey);
+        }
+    }
+
+    private ResponseEntity<?> doCreateOrder(CustomerOrder orderRequest, String scopeKey) {
         try {
             // Ensure orderItems in the request are correctly structured
             // The frontend should send something like:
             // { "customerName": "John Doe", "orderItems": [ { "menuItem": {"id": 1}, "quantity": 2 }, ... ] }
             if (orderRequest.getOrderItems() == null || orderRequest.getOrderItems().isEmpty()) {
                 logger.warn("Attempted to create an order with no items.");
+                abandonIdempotencyKey(scopeKey);
                 return ResponseEntity.badRequest().body("Order must contain at least one item.");
             }
+            if (orderIntakeService != null) {
+                return enqueueOrder(orderRequest, scopeKey);
+            }
             CustomerOrder createdOrder = orderService.createOrder(orderRequest);
-            logger.info("Order created successfully with ID: {}", createdOrder.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
-        } catch (RuntimeException e) {
+            if (logSampler.sample("orders.create")) {
+                logOrder("Order created", orderRequest).addKeyValue("orderId", createdOrder.getId()).log();
+            }
+            // Serialized once: the same bytes go to the client and to the idempotency store
+            byte[] body = objectMapper.writeValueAsBytes(createdOrder);
+            if (scopeKey != null) {
+                idempotencyStore.complete(scopeKey, HttpStatus.CREATED.value(), body);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (RuntimeException | JsonProcessingException e) {
             logger.error("Error creating order: {}", e.getMessage(), e);
+            abandonIdempotencyKey(scopeKey);
             return ResponseEntity.badRequest().body("Error creating order: " + e.getMessage());
         }
     }
 
+    // Async intake: the order is journaled and queued, and written to the database by the intake writer
+    private ResponseEntity<?> enqueueOrder(CustomerOrder orderRequest, String scopeKey) throws JsonProcessingException {
+        String reference = orderIntakeService.submit(orderRequest);
+        if (reference == null) {
+            logger.warn("Order intake queue is full; rejecting order");
+            abandonIdempotencyKey(scopeKey);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(intakeRetryAfterSeconds))
+                    .body("Order intake is busy, please retry.");
+        }
+        if (logSampler.sample("orders.create")) {
+            logOrder("Order queued", orderRequest).addKeyValue("reference", reference).log();
+        }
+        byte[] body = objectMapper.writeValueAsBytes(
+                new IntakeStatusView(reference, OrderIntakeService.QUEUED, null, null));
+        if (scopeKey != null) {
+            idempotencyStore.complete(scopeKey, HttpStatus.ACCEPTED.value(), body);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/orders/intake/" + reference))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping("/intake/{reference}")
+    public ResponseEntity<IntakeStatusView> getIntakeStatus(@PathVariable String reference) {
+        IntakeStatusView status = orderIntakeService != null ? orderIntakeService.getStatus(reference) : null;
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    // Never log the request entity itself: its toString walks the whole order graph
+    private LoggingEventBuilder logOrder(String message, CustomerOrder orderRequest) {
+        return logger.atInfo().setMessage(message)
+                .addKeyValue("lines", OrderLogSummary.lineCount(orderRequest))
+                .addKeyValue("quantity", OrderLogSummary.totalQuantity(orderRequest))
+                .addKeyValue("menuItemIds", OrderLogSummary.menuItemIds(orderRequest));
+    }
+
+    private void abandonIdempotencyKey(String scopeKey) {
+        if (scopeKey != null) {
+            idempotencyStore.abandon(scopeKey);
+        }
+    }
+
+    private String requestHash(CustomerOrder orderRequest) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderRequest));
+            return HexFormat.of().formatHex(hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint order request", e);
+        }
+    }
+
     @PutMapping("/{id}/status")
-    public ResponseEntity<CustomerOrder> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> statusUpdate) {
+    public ResponseEntity<OrderStatusView> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> statusUpdate) {
         String status = statusUpdate.get("status");
-        logger.info("Received request to update status of order ID: {} to status: {}", id, status);
         if (status == null || status.trim().isEmpty()) {
             logger.warn("Invalid status update request for order ID: {}. Status is null or empty.", id);
             return ResponseEntity.badRequest().build();
         }
         try {
-            CustomerOrder updatedOrder = orderService.updateOrderStatus(id, status);
-            logger.info("Order status updated successfully for ID: {}", id);
+            OrderStatusView updatedOrder = orderService.updateOrderStatus(id, status);
+            if (logSampler.sample("orders.status")) {
+                logger.atInfo().addKeyValue("orderId", id).addKeyValue("status", updatedOrder.getStatus()).log("Order status updated");
+            }
             return ResponseEntity.ok(updatedOrder);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid status for order ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected status transition for order ID: {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             logger.error("Error updating status for order ID: {}: {}", id, e.getMessage(), e);
             return ResponseEntity.notFound().build();
@@ -81,9 +255,9 @@ public class OrderController {
     }
 
     @GetMapping("/status/{statusName}")
-    public ResponseEntity<List<CustomerOrder>> getOrdersByStatus(@PathVariable String statusName) {
-        logger.info("Received request to get orders by status: {}", statusName);
-        List<CustomerOrder> orders = orderService.findOrdersByStatus(statusName);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage> getOrdersByStatus(@PathVariable String statusName,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer limit) {
+        return getOrders(statusName, null, null, null, cursor, limit);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.restaurant.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Progress of an order accepted through the async intake queue: QUEUED, CREATED (with orderId) or FAILED (with error)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntakeStatusView {
+    private String reference;
+    private String status;
+    private Long orderId;
+    private String error;
+}
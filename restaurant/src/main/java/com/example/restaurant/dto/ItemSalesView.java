@@ -0,0 +1,18 @@
+package com.example.restaurant.dto;
+
+import com.example.restaurant.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sales of one menu item over a date range; orders counts the orders that contained the item
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSalesView {
+    private Long menuItemId;
+    private String name;
+    private long orders;
+    private long quantity;
+    private Money revenue;
+}
@@ -0,0 +1,9 @@
+package com.example.restaurant.dto;
+
+import lombok.Data;
+
+@Data
+public class LoginRequest {
+    private String username;
+    private String password;
+}
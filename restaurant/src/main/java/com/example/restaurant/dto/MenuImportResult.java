@@ -0,0 +1,15 @@
+package com.example.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk menu upsert or price change; unchanged items cause no write
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportResult {
+    private int created;
+    private int updated;
+    private int unchanged;
+}
@@ -0,0 +1,22 @@
+package com.example.restaurant.dto;
+
+import com.example.restaurant.model.Money;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Bulk price change. Targets the items in ids, or every item in category, or the whole menu when
+ * neither is given. Exactly one of percent (e.g. 5 or -10, rounded half-up to the cent) and amount
+ * (added to each price, may be negative) must be set.
+ */
+@Data
+@NoArgsConstructor
+public class MenuPriceAdjustment {
+    private List<Long> ids;
+    private String category;
+    private BigDecimal percent;
+    private Money amount;
+}
@@ -0,0 +1,18 @@
+package com.example.restaurant.dto;
+
+import com.example.restaurant.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Flat projection of an order item for list views; no entity is hydrated
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineView {
+    private Long id;
+    private Long menuItemId;
+    private String menuItemName;
+    private int quantity;
+    private Money unitPrice;
+}
@@ -0,0 +1,22 @@
+package com.example.restaurant.dto;
+
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The order columns a status change reads and returns; no items, so no join and no entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusView {
+    private Long id;
+    private String customerName;
+    private LocalDateTime orderTime;
+    private Money totalPrice;
+    private OrderStatus status;
+    private Long version;
+}
@@ -0,0 +1,23 @@
+package com.example.restaurant.dto;
+
+import com.example.restaurant.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Projection of a customer order plus its lines, as returned by the paged order listing
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryView {
+    private Long id;
+    private String customerName;
+    private LocalDateTime orderTime;
+    private Money totalPrice;
+    private String status;
+    private List<OrderLineView> items = new ArrayList<>();
+}
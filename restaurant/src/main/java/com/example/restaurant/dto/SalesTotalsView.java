@@ -0,0 +1,18 @@
+package com.example.restaurant.dto;
+
+import com.example.restaurant.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sales for one day ("2026-03-14") or one hour ("2026-03-14T19:00"); cancelled orders are excluded from the other totals
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesTotalsView {
+    private String period;
+    private long orders;
+    private long itemQuantity;
+    private Money revenue;
+    private long cancelledOrders;
+}
@@ -0,0 +1,29 @@
+package com.example.restaurant.event;
+
+import com.example.restaurant.model.MenuItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published by MenuItemService inside the menu transaction. upserted holds the saved items as written,
+ * removedIds the deleted ones; listeners that keep derived indexes use @TransactionalEventListener.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuChangedEvent {
+
+    private List<MenuItem> upserted;
+    private List<Long> removedIds;
+
+    public static MenuChangedEvent upserted(MenuItem item) {
+        return new MenuChangedEvent(List.of(item), List.of());
+    }
+
+    public static MenuChangedEvent removed(Long id) {
+        return new MenuChangedEvent(List.of(), List.of(id));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.restaurant.event;
+
+import com.example.restaurant.dto.OrderStatusView;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService inside the order transaction; listeners that push to clients
+ * use @TransactionalEventListener so they only see committed changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    public enum Type { CREATED, STATUS_CHANGED }
+
+    private Type type;
+    private Long orderId;
+    private String customerName;
+    private LocalDateTime orderTime;
+    private Money totalPrice;
+    private OrderStatus status;
+    private OrderStatus previousStatus;
+
+    public static OrderEvent created(CustomerOrder order) {
+        return new OrderEvent(Type.CREATED, order.getId(), order.getCustomerName(), order.getOrderTime(),
+                order.getTotalPrice(), order.getStatus(), null);
+    }
+
+    public static OrderEvent statusChanged(OrderStatusView order, OrderStatus previousStatus) {
+        return new OrderEvent(Type.STATUS_CHANGED, order.getId(), order.getCustomerName(), order.getOrderTime(),
+                order.getTotalPrice(), order.getStatus(), previousStatus);
+    }
+}
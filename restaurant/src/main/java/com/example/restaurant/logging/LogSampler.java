@@ -0,0 +1,55 @@
+package com.example.restaurant.logging;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint 1-in-N sampling for routine request logs.
+ * <p>
+ * {@code restaurant.app.logging.sampleEvery} sets N for every endpoint; an endpoint can override it with
+ * {@code restaurant.app.logging.sampleEvery.<endpoint>} (e.g. {@code ...sampleEvery.orders.create=10}).
+ * N = 1 logs everything, N = 0 logs nothing. Warnings and errors should never go through the sampler.
+ */
+@Component
+public class LogSampler {
+
+    private static final String PROPERTY = "restaurant.app.logging.sampleEvery";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${" + PROPERTY + ":1}")
+    private int defaultSampleEvery;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public boolean sample(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, this::newEndpoint).sample();
+    }
+
+    private Endpoint newEndpoint(String endpoint) {
+        return new Endpoint(environment.getProperty(PROPERTY + "." + endpoint, Integer.class, defaultSampleEvery));
+    }
+
+    private static final class Endpoint {
+        private final int every;
+        private final AtomicLong requests = new AtomicLong();
+
+        private Endpoint(int every) {
+            this.every = every;
+        }
+
+        private boolean sample() {
+            if (every <= 0) {
+                return false;
+            }
+            return every == 1 || requests.getAndIncrement() % every == 0;
+        }
+    }
+}
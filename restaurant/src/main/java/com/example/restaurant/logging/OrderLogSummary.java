@@ -0,0 +1,49 @@
+package com.example.restaurant.logging;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Cheap, PII-free description of an order request for logs: line count, total quantity and the
+ * referenced menu item ids. Use instead of the entity's toString, which walks the whole order graph.
+ */
+public final class OrderLogSummary {
+
+    private OrderLogSummary() {
+    }
+
+    public static int lineCount(CustomerOrder order) {
+        List<OrderItem> items = order.getOrderItems();
+        return items != null ? items.size() : 0;
+    }
+
+    public static int totalQuantity(CustomerOrder order) {
+        List<OrderItem> items = order.getOrderItems();
+        if (items == null) {
+            return 0;
+        }
+        int quantity = 0;
+        for (int i = 0; i < items.size(); i++) {
+            quantity += items.get(i).getQuantity();
+        }
+        return quantity;
+    }
+
+    public static String menuItemIds(CustomerOrder order) {
+        List<OrderItem> items = order.getOrderItems();
+        if (items == null || items.isEmpty()) {
+            return "[]";
+        }
+        StringBuilder ids = new StringBuilder(items.size() * 4).append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                ids.append(',');
+            }
+            OrderItem item = items.get(i);
+            ids.append(item.getMenuItem() != null ? item.getMenuItem().getId() : null);
+        }
+        return ids.append(']').toString();
+    }
+}
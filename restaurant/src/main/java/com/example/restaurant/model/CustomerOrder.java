@@ -1,47 +1,93 @@
 package com.example.restaurant.model;
 
+import com.example.restaurant.config.IdBlockGenerator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "customer_orders")
+@Table(name = "customer_orders", indexes = {
+        // Kitchen polling and status listings: WHERE status = ? ORDER BY order_time
+        @Index(name = "idx_orders_status_time", columnList = "status, order_time"),
+        // Customer order history: WHERE customer_name = ? ORDER BY order_time
+        @Index(name = "idx_orders_customer_time", columnList = "customer_name, order_time"),
+        // Unfiltered keyset paging on (order_time, id)
+        @Index(name = "idx_orders_time", columnList = "order_time, id")
+})
+// Items with their menu items in one join, for views that list the dishes (receipt, kitchen)
+@NamedEntityGraph(name = CustomerOrder.WITH_ITEMS,
+        attributeNodes = @NamedAttributeNode(value = "orderItems", subgraph = "items"),
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("menuItem")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CustomerOrder {
 
+    public static final String WITH_ITEMS = "CustomerOrder.withItems";
+    public static final int CUSTOMER_NAME_LENGTH = 255;
+
+    // Table-backed pooled ids instead of IDENTITY so Hibernate can batch the INSERTs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "customer_order_id")
+    @GenericGenerator(name = "customer_order_id", type = IdBlockGenerator.class, parameters = {
+            @Parameter(name = "table_name", value = "id_generators"),
+            @Parameter(name = "segment_column_name", value = "sequence_name"),
+            @Parameter(name = "value_column_name", value = "next_val"),
+            @Parameter(name = "segment_value", value = "customer_orders"),
+            @Parameter(name = "increment_size", value = "50")})
     private Long id;
 
+    @Column(name = "customer_name", length = CUSTOMER_NAME_LENGTH)
     private String customerName;
+
+    @Column(name = "order_time")
     private LocalDateTime orderTime;
-    private double totalPrice;
-    private String status;
+
+    @Column(name = "total_price_cents")
+    private Money totalPrice = Money.ZERO;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private OrderStatus status;
+
+    // Optimistic locking. Status changes bump it with a conditional UPDATE instead of loading the order.
+    // The default fills existing rows when ddl-auto adds the column, and rows inserted by plain SQL.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Set for orders accepted through the async intake queue; lets journal replay skip orders already written
+    @JsonIgnore
+    @Column(name = "intake_reference", length = 36, unique = true)
+    private String intakeReference;
 
     // CascadeType.ALL: if an order is deleted, its items are also deleted.
     // orphanRemoval=true: if an OrderItem is removed from the orderItems list, it's deleted from the DB.
-    // FetchType.EAGER: Load order items along with the order. For many items, LAZY might be better.
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "customerOrder", orphanRemoval = true)
+    // LAZY: status changes and counts never need the items; views that do fetch them with WITH_ITEMS
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "customerOrder", orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
 
     @PrePersist
     protected void onCreate() {
-        this.orderTime = LocalDateTime.now();
-        if (this.status == null || this.status.trim().isEmpty()) {
-            this.status = "PENDING";
+        // Imported historical orders arrive with their original time already set
+        if (this.orderTime == null) {
+            this.orderTime = LocalDateTime.now();
+        }
+        if (this.status == null) {
+            this.status = OrderStatus.PENDING;
         }
     }
 
     public void calculateTotalPrice() {
-        this.totalPrice = this.orderItems.stream()
-                .mapToDouble(item -> item.getQuantity() * item.getUnitPrice())
-                .sum();
+        this.totalPrice = Money.ofCents(OrderTotals.subtotalCents(this.orderItems));
     }
 
     // Helper method to add an order item and set the bidirectional relationship
@@ -0,0 +1,33 @@
+package com.example.restaurant.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Sales totals per hour of order time, maintained incrementally by SalesReportService. Cancelled orders are moved out of the totals.
+@Entity
+@Table(name = "sales_hourly")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlySales {
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "item_quantity", nullable = false)
+    private long itemQuantity;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+}
@@ -0,0 +1,34 @@
+package com.example.restaurant.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Completed idempotent responses, persisted only when restaurant.app.idempotency.persistent=true
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "scope_key", length = 320)
+    private String scopeKey;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Lob
+    @Column(name = "response_body", columnDefinition = "LONGBLOB")
+    private byte[] responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,44 @@
+package com.example.restaurant.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Sales per menu item per day of order time, maintained incrementally by SalesReportService
+@Entity
+@Table(name = "sales_item_daily", indexes = @Index(name = "idx_sales_item_daily_item", columnList = "menu_item_id, sales_date"))
+@IdClass(ItemDailySales.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemDailySales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long menuItemId;
+    }
+}
@@ -1,28 +1,43 @@
 package com.example.restaurant.model;
 
+import com.example.restaurant.config.IdBlockGenerator;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
 @Table(name = "menu_items")
+// READ_WRITE rather than nonstrict: orders are priced from these rows, so a price change must never be served stale
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "menuItems")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MenuItem {
 
+    // Pooled table ids (like orders) so bulk menu imports can batch their INSERTs
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "menu_item_id")
+    @GenericGenerator(name = "menu_item_id", type = IdBlockGenerator.class, parameters = {
+            @Parameter(name = "table_name", value = "id_generators"),
+            @Parameter(name = "segment_column_name", value = "sequence_name"),
+            @Parameter(name = "value_column_name", value = "next_val"),
+            @Parameter(name = "segment_value", value = "menu_items"),
+            @Parameter(name = "increment_size", value = "50")})
     private Long id;
 
     private String name;
     private String description;
-    private double price;
+    @Column(name = "price_cents")
+    private Money price;
     private String category;
     private String imageUrl;
 
@@ -50,11 +65,11 @@ public class MenuItem {
         this.description = description;
     }
 
-    public double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
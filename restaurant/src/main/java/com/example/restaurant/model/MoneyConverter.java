@@ -0,0 +1,19 @@
+package com.example.restaurant.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Money columns are BIGINT cents
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.getCents();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long cents) {
+        return cents == null ? null : Money.ofCents(cents);
+    }
+}
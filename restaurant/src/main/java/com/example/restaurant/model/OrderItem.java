@@ -1,10 +1,15 @@
 package com.example.restaurant.model;
 
+import com.example.restaurant.config.IdBlockGenerator;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 @Entity
 @Table(name = "order_items")
@@ -14,18 +19,27 @@ import lombok.AllArgsConstructor;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "order_item_id")
+    @GenericGenerator(name = "order_item_id", type = IdBlockGenerator.class, parameters = {
+            @Parameter(name = "table_name", value = "id_generators"),
+            @Parameter(name = "segment_column_name", value = "sequence_name"),
+            @Parameter(name = "value_column_name", value = "next_val"),
+            @Parameter(name = "segment_value", value = "order_items"),
+            @Parameter(name = "increment_size", value = "50")})
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER) // EAGER to easily get MenuItem details when fetching OrderItem
+    @ManyToOne(fetch = FetchType.LAZY) // Fetched through CustomerOrder.WITH_ITEMS where the dish is shown
     @JoinColumn(name = "menu_item_id", nullable = false)
     private MenuItem menuItem;
 
     private int quantity;
-    private double unitPrice; // Price of the menu item at the time of order
+    @Column(name = "unit_price_cents")
+    private Money unitPrice; // Price of the menu item at the time of order
 
     @ManyToOne(fetch = FetchType.LAZY) // LAZY to avoid circular dependency issues with default Jackson serialization
     @JoinColumn(name = "customer_order_id", nullable = false)
     @JsonBackReference // Prevents infinite recursion during JSON serialization
+    @ToString.Exclude // Same for toString/equals/hashCode: the order already includes its items
+    @EqualsAndHashCode.Exclude
     private CustomerOrder customerOrder;
 }
@@ -0,0 +1,91 @@
+package com.example.restaurant.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lifecycle of a customer order. Transitions not listed here are rejected by OrderService.
+ */
+public enum OrderStatus {
+    PENDING,
+    PREPARING,
+    READY,
+    COMPLETED,
+    CANCELLED,
+    /**
+     * A stored value that is none of the above: free-form text from before statuses were an enum (listed at
+     * startup by LegacyOrderStatusMigrator). Never accepted from clients and left out of sales reports; staff
+     * resolve such an order by moving it to any real status.
+     */
+    UNKNOWN;
+
+    private static final Set<OrderStatus> KNOWN = EnumSet.complementOf(EnumSet.of(UNKNOWN));
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatus.class);
+    // Each unknown stored value is reported once, not on every read
+    private static final Set<String> reportedLegacyValues = ConcurrentHashMap.newKeySet();
+
+    public Set<OrderStatus> allowedTransitions() {
+        switch (this) {
+            case PENDING:
+                return EnumSet.of(PREPARING, CANCELLED);
+            case PREPARING:
+                return EnumSet.of(READY, CANCELLED);
+            case READY:
+                return EnumSet.of(COMPLETED);
+            case UNKNOWN:
+                return EnumSet.copyOf(KNOWN);
+            default:
+                return EnumSet.noneOf(OrderStatus.class); // COMPLETED and CANCELLED are final
+        }
+    }
+
+    // Re-sending the current status is accepted as a no-op so client retries are harmless
+    public boolean canTransitionTo(OrderStatus target) {
+        return this == target || allowedTransitions().contains(target);
+    }
+
+    public boolean isKnown() {
+        return this != UNKNOWN;
+    }
+
+    // Statuses used to be free-form strings, so parsing is lenient about case and whitespace.
+    // For client input (requests, filters, imports): UNKNOWN is rejected like any other unknown value.
+    @JsonCreator
+    public static OrderStatus fromValue(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Order status is required");
+        }
+        OrderStatus status = parse(value);
+        if (status == null || status == UNKNOWN) {
+            throw new IllegalArgumentException("Unknown order status: " + value);
+        }
+        return status;
+    }
+
+    // For values read from the database: an unknown value must not fail the read, so it maps to UNKNOWN
+    public static OrderStatus fromStoredValue(String value) {
+        OrderStatus status = value == null ? null : parse(value);
+        if (status != null) {
+            return status;
+        }
+        if (reportedLegacyValues.size() < 100 && reportedLegacyValues.add(String.valueOf(value))) {
+            logger.warn("Unknown stored order status '{}', reading it as {}", value, UNKNOWN);
+        }
+        return UNKNOWN;
+    }
+
+    private static OrderStatus parse(String value) {
+        try {
+            return OrderStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
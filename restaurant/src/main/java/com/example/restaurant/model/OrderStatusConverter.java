@@ -0,0 +1,19 @@
+package com.example.restaurant.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores the enum name; reads legacy rows written with a different case, and unknown values as OrderStatus.UNKNOWN
+@Converter(autoApply = true)
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.name();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(String value) {
+        return value == null ? null : OrderStatus.fromStoredValue(value);
+    }
+}
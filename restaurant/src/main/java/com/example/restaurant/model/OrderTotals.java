@@ -0,0 +1,64 @@
+package com.example.restaurant.model;
+
+import java.util.List;
+
+/**
+ * Order totals computed in cents. The per-line loop works on primitives only, so computing
+ * a total allocates nothing per item; tax lines are applied to the discounted subtotal and
+ * each is rounded half-up to the cent.
+ */
+public final class OrderTotals {
+
+    private static final int[] NO_TAX = new int[0];
+
+    private final long subtotalCents;
+    private final long discountCents;
+    private final long taxCents;
+    private final long totalCents;
+
+    private OrderTotals(long subtotalCents, long discountCents, long taxCents) {
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.taxCents = taxCents;
+        this.totalCents = subtotalCents - discountCents + taxCents;
+    }
+
+    // Lines without a unit price (not yet resolved against the menu) count as zero
+    public static long subtotalCents(List<OrderItem> items) {
+        long subtotal = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem item = items.get(i);
+            Money unitPrice = item.getUnitPrice();
+            if (unitPrice != null) {
+                subtotal = Math.addExact(subtotal, Math.multiplyExact(unitPrice.getCents(), (long) item.getQuantity()));
+            }
+        }
+        return subtotal;
+    }
+
+    /**
+     * @param discountCents       flat discount, capped at the subtotal; negative counts as none
+     * @param taxRatesBasisPoints one entry per tax line, in 1/100 of a percent (825 = 8.25%)
+     */
+    public static OrderTotals compute(List<OrderItem> items, long discountCents, int... taxRatesBasisPoints) {
+        long subtotal = subtotalCents(items);
+        long discount = Math.max(0, Math.min(discountCents, subtotal));
+        long taxable = subtotal - discount;
+
+        long tax = 0;
+        for (int rate : taxRatesBasisPoints == null ? NO_TAX : taxRatesBasisPoints) {
+            if (rate < 0) {
+                throw new IllegalArgumentException("Tax rate must not be negative: " + rate);
+            }
+            // taxable * rate / 10000, rounded half-up (taxable and rate are never negative)
+            tax = Math.addExact(tax, (Math.multiplyExact(taxable, (long) rate) + 5_000) / 10_000);
+        }
+        return new OrderTotals(subtotal, discount, tax);
+    }
+
+    public Money getSubtotal() { return Money.ofCents(subtotalCents); }
+    public Money getDiscount() { return Money.ofCents(discountCents); }
+    public Money getTax() { return Money.ofCents(taxCents); }
+    public Money getTotal() { return Money.ofCents(totalCents); }
+    public long getTotalCents() { return totalCents; }
+}
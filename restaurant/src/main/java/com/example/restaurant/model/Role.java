@@ -4,9 +4,13 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "roles")
+// Reference data: seeded once, never updated
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "roles")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -44,6 +46,12 @@ public class User {
     @Size(max = 50)
     private String lastName;
 
+    // Epoch millis; tokens issued before it are rejected (TokenRevocationRegistry). Null if never revoked.
+    @Column(name = "tokens_not_before")
+    private Long tokensNotBefore;
+
+    // Cached as role ids per user, so loading a user for authentication skips the user_roles select
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "userRoles")
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
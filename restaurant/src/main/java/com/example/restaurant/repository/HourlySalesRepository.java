@@ -0,0 +1,14 @@
+package com.example.restaurant.repository;
+
+import com.example.restaurant.model.HourlySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface HourlySalesRepository extends JpaRepository<HourlySales, LocalDateTime> {
+
+    List<HourlySales> findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,19 @@
+package com.example.restaurant.repository;
+
+import com.example.restaurant.model.ItemDailySales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ItemDailySalesRepository extends JpaRepository<ItemDailySales, ItemDailySales.Key> {
+
+    // One row per item over the range: [menuItemId, orders, quantity, revenueCents], best sellers first; the page limits the rows in SQL
+    @Query("SELECT s.menuItemId, SUM(s.orderCount), SUM(s.quantity), SUM(s.revenueCents) FROM ItemDailySales s "
+            + "WHERE s.salesDate >= :from AND s.salesDate <= :to GROUP BY s.menuItemId ORDER BY SUM(s.quantity) DESC")
+    List<Object[]> sumByItem(LocalDate from, LocalDate to, Pageable page);
+}
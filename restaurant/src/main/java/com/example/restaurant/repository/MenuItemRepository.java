@@ -1,11 +1,20 @@
 package com.example.restaurant.repository;
 
 import com.example.restaurant.model.MenuItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    // Query cache holds the ids; any write to menu_items invalidates it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<MenuItem> findByCategory(String category);
+
+    // Case-insensitive on every database, like MySQL's default collation
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<MenuItem> findByCategoryIgnoreCase(String category);
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.example.restaurant.repository;
+
+import com.example.restaurant.dto.OrderLineView;
+import com.example.restaurant.dto.OrderSummaryView;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Full order history for exports, read through a single forward-only result set and handed on one
+ * order at a time, so memory use does not depend on how many orders match.
+ * <p>
+ * MySQL Connector/J reads a whole result into memory unless told otherwise. Rather than setting
+ * useCursorFetch on the shared connection URL (which switches every query to server-side prepared
+ * statements), only this query streams: a fetch size of Integer.MIN_VALUE makes the driver read rows
+ * off the socket as they are consumed. The connection is busy until the result is closed, which is
+ * fine here as the export issues nothing else on it. Other databases get {@code fetchSize}.
+ */
+@Repository
+public class OrderExportRepository {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${restaurant.app.export.fetchSize:1000}")
+    private int fetchSize;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() throws MetaDataAccessException {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        template.setFetchSize("MySQL".equalsIgnoreCase(database) ? Integer.MIN_VALUE : fetchSize);
+        jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /** Calls consumer for each matching order with its items, in id order. Returns the number of orders. */
+    public long forEachOrder(String status, LocalDateTime from, LocalDateTime to, Consumer<OrderSummaryView> consumer) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (status != null) {
+            where.append(" AND o.status = :status");
+            params.addValue("status", status);
+        }
+        if (from != null) {
+            where.append(" AND o.order_time >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND o.order_time < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+
+        String sql = "SELECT o.id, o.customer_name, o.order_time, o.total_price_cents, o.status,"
+                + " i.id AS item_id, i.menu_item_id, m.name AS menu_item_name, i.quantity, i.unit_price_cents"
+                + " FROM customer_orders o"
+                + " LEFT JOIN order_items i ON i.customer_order_id = o.id"
+                + " LEFT JOIN menu_items m ON m.id = i.menu_item_id"
+                + where
+                + " ORDER BY o.id, i.id";
+
+        OrderSummaryView[] current = new OrderSummaryView[1];
+        long[] count = new long[1];
+        jdbcTemplate.query(sql, params, rs -> {
+            long orderId = rs.getLong("id");
+            OrderSummaryView order = current[0];
+            // Rows arrive grouped by order: a new id completes the previous order
+            if (order == null || order.getId() != orderId) {
+                if (order != null) {
+                    consumer.accept(order);
+                    count[0]++;
+                }
+                Timestamp orderTime = rs.getTimestamp("order_time");
+                order = new OrderSummaryView(orderId, rs.getString("customer_name"),
+                        orderTime == null ? null : orderTime.toLocalDateTime(),
+                        Money.ofCents(rs.getLong("total_price_cents")), OrderStatus.fromStoredValue(rs.getString("status")).name(), new ArrayList<>());
+                current[0] = order;
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                order.getItems().add(new OrderLineView(itemId, rs.getLong("menu_item_id"),
+                        rs.getString("menu_item_name"), rs.getInt("quantity"), Money.ofCents(rs.getLong("unit_price_cents"))));
+            }
+        });
+        if (current[0] != null) {
+            consumer.accept(current[0]);
+            count[0]++;
+        }
+        return count[0];
+    }
+}
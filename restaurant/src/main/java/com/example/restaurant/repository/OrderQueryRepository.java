@@ -0,0 +1,84 @@
+package com.example.restaurant.repository;
+
+import com.example.restaurant.dto.OrderLineView;
+import com.example.restaurant.dto.OrderSummaryView;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only order listing. Each page is one SQL statement: the page of orders is selected
+ * by keyset (order_time, id) in a derived table and joined to its items and menu item names,
+ * so neither entities nor lazy associations are loaded.
+ */
+@Repository
+public class OrderQueryRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<OrderSummaryView> findPage(String status, String customerName, LocalDateTime from, LocalDateTime to,
+                                           LocalDateTime afterTime, Long afterId, int limit) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (status != null) {
+            where.append(" AND status = :status");
+            params.addValue("status", status);
+        }
+        if (customerName != null) {
+            where.append(" AND customer_name = :customerName");
+            params.addValue("customerName", customerName);
+        }
+        if (from != null) {
+            where.append(" AND order_time >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND order_time < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        if (afterTime != null && afterId != null) {
+            where.append(" AND (order_time < :afterTime OR (order_time = :afterTime AND id < :afterId))");
+            params.addValue("afterTime", Timestamp.valueOf(afterTime));
+            params.addValue("afterId", afterId);
+        }
+
+        String sql = "SELECT o.id, o.customer_name, o.order_time, o.total_price_cents, o.status,"
+                + " i.id AS item_id, i.menu_item_id, m.name AS menu_item_name, i.quantity, i.unit_price_cents"
+                + " FROM (SELECT id, customer_name, order_time, total_price_cents, status FROM customer_orders"
+                + where
+                + " ORDER BY order_time DESC, id DESC LIMIT :limit) o"
+                + " LEFT JOIN order_items i ON i.customer_order_id = o.id"
+                + " LEFT JOIN menu_items m ON m.id = i.menu_item_id"
+                + " ORDER BY o.order_time DESC, o.id DESC, i.id";
+
+        List<OrderSummaryView> orders = new ArrayList<>(limit);
+        jdbcTemplate.query(sql, params, rs -> {
+            long orderId = rs.getLong("id");
+            OrderSummaryView order = orders.isEmpty() ? null : orders.get(orders.size() - 1);
+            // Rows arrive grouped by order, so a new id means a new order
+            if (order == null || order.getId() != orderId) {
+                Timestamp orderTime = rs.getTimestamp("order_time");
+                // Status read as the entity reads it, so legacy text comes back as UNKNOWN here too
+                order = new OrderSummaryView(orderId, rs.getString("customer_name"),
+                        orderTime == null ? null : orderTime.toLocalDateTime(),
+                        Money.ofCents(rs.getLong("total_price_cents")), OrderStatus.fromStoredValue(rs.getString("status")).name(), new ArrayList<>());
+                orders.add(order);
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                order.getItems().add(new OrderLineView(itemId, rs.getLong("menu_item_id"),
+                        rs.getString("menu_item_name"), rs.getInt("quantity"), Money.ofCents(rs.getLong("unit_price_cents"))));
+            }
+        });
+        return orders;
+    }
+}
@@ -1,12 +1,46 @@
 package com.example.restaurant.repository;
 
+import com.example.restaurant.dto.OrderStatusView;
 import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository // <--- ENSURE THIS ANNOTATION IS PRESENT
 public interface OrderRepository extends JpaRepository<CustomerOrder, Long> {
     List<CustomerOrder> findByCustomerName(String customerName);
-    List<CustomerOrder> findByStatus(String status);
+
+    // Kitchen view: open orders with their dishes, one query
+    @EntityGraph(CustomerOrder.WITH_ITEMS)
+    List<CustomerOrder> findByStatus(OrderStatus status);
+
+    // Receipt view; plain findById loads only the order row (enough for status changes)
+    @EntityGraph(CustomerOrder.WITH_ITEMS)
+    Optional<CustomerOrder> findWithItemsById(Long id);
+
+    // The lines of one order without loading the order or its items: [menuItemId, quantity, unitPrice]
+    @Query("SELECT i.menuItem.id, i.quantity, i.unitPrice FROM OrderItem i WHERE i.customerOrder.id = :id")
+    List<Object[]> findLinesById(Long id);
+
+    // One row per status that has orders: [OrderStatus, Long count]
+    @Query("SELECT o.status, COUNT(o) FROM CustomerOrder o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query("SELECT o.intakeReference, o.id FROM CustomerOrder o WHERE o.intakeReference IN :references")
+    List<Object[]> findIdsByIntakeReferences(Collection<String> references);
+
+    @Query("SELECT new com.example.restaurant.dto.OrderStatusView(o.id, o.customerName, o.orderTime, o.totalPrice, o.status, o.version) "
+            + "FROM CustomerOrder o WHERE o.id = :id")
+    Optional<OrderStatusView> findStatusViewById(Long id);
+
+    // Compare-and-set on the version: updates nothing if the order changed since it was read
+    @Modifying
+    @Query("UPDATE CustomerOrder o SET o.status = :status, o.version = o.version + 1 WHERE o.id = :id AND o.version = :version")
+    int updateStatusIfVersion(Long id, OrderStatus status, Long version);
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package com.example.restaurant.repository;
 
 import com.example.restaurant.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +14,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // Empty if the user does not exist or has never had tokens revoked
+    @Query("SELECT u.tokensNotBefore FROM User u WHERE u.username = :username")
+    Optional<Long> findTokensNotBefore(String username);
+
+    // Only ever moves the mark forward, so concurrent revocations on different instances cannot undo each other
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokensNotBefore = :mark "
+            + "WHERE u.username = :username AND (u.tokensNotBefore IS NULL OR u.tokensNotBefore < :mark)")
+    int raiseTokensNotBefore(String username, long mark);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.restaurant.security.jwt;
 
 import com.example.restaurant.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException; // This was already there
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +27,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    // When true, the principal is rebuilt from the signed claims instead of reloading the user from MySQL
+    @Value("${restaurant.app.jwtTrustClaims:false}")
+    private boolean trustClaims;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -32,10 +44,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException { // IOException is declared here
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = jwt != null ? resolveUser(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -54,6 +64,37 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Cache hit: no signature check, no database. Miss: one parse, one user lookup, then cached.
+    // Both check the revocation mark, so an entry cached by a request racing with a revocation is still refused.
+    private UserDetails resolveUser(String jwt) {
+        JwtAuthenticationCache.Entry cached = authenticationCache.get(jwt);
+        if (cached != null) {
+            if (revocationRegistry.isRevoked(cached.getUserDetails().getUsername(), cached.getIssuedAt())) {
+                logger.warn("Rejected revoked JWT for user: {}", cached.getUserDetails().getUsername());
+                authenticationCache.invalidate(jwt);
+                return null;
+            }
+            return cached.getUserDetails();
+        }
+        UserDetails userDetails = null;
+        Claims claims = jwtUtils.parseValidClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+        if (revocationRegistry.isRevoked(claims.getSubject(), claims.getIssuedAt())) {
+            logger.warn("Rejected revoked JWT for user: {}", claims.getSubject());
+            return null;
+        }
+        if (trustClaims) {
+            userDetails = jwtUtils.buildUserDetailsFromClaims(claims);
+        }
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        authenticationCache.put(jwt, userDetails, claims.getIssuedAt(), claims.getExpiration());
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
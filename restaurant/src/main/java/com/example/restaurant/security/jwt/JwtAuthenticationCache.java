@@ -0,0 +1,97 @@
+package com.example.restaurant.security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the principal for tokens that already passed signature verification, so repeat requests
+ * with the same token skip both the HMAC check and the user lookup.
+ * An entry never outlives its token, and lives at most jwtCacheTtlMs so role changes are picked up.
+ * It keeps the token's issue time, so a hit can still be checked against TokenRevocationRegistry.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    @Value("${restaurant.app.jwtCacheTtlMs:60000}")
+    private long ttlMs;
+
+    @Value("${restaurant.app.jwtCacheMaxEntries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public Entry get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public void put(String token, UserDetails userDetails, Date issuedAt, Date tokenExpiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMs;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(token, new Entry(userDetails, issuedAt, expiresAt));
+    }
+
+    public void invalidate(String token) {
+        entries.remove(token);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drop expired entries first; if the cache is still full, drop an arbitrary tenth of it
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        for (Iterator<String> it = entries.keySet().iterator(); excess > 0 && it.hasNext(); excess--) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public static final class Entry {
+        private final UserDetails userDetails;
+        private final Date issuedAt;
+        private final long expiresAt;
+
+        private Entry(UserDetails userDetails, Date issuedAt, long expiresAt) {
+            this.userDetails = userDetails;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public UserDetails getUserDetails() {
+            return userDetails;
+        }
+
+        public Date getIssuedAt() {
+            return issuedAt;
+        }
+    }
+}
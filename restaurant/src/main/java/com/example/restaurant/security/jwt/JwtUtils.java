@@ -3,17 +3,21 @@ package com.example.restaurant.security.jwt;
 import com.example.restaurant.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys; // Correct import for Keys
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority; // <<--- ADD THIS IMPORT
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import jakarta.annotation.PostConstruct;
 
 import java.security.Key;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors; // <<--- ADD THIS IMPORT
 
@@ -29,10 +33,14 @@ public class JwtUtils {
 
     private Key key;
 
+    // Built once: JwtParser is immutable and thread-safe, so every request can share it
+    private JwtParser jwtParser;
+
     @PostConstruct
     public void init() {
         // Ensure your jwtSecretString is strong enough (at least 256 bits for HS256)
         this.key = Keys.hmacShaKeyFor(jwtSecretString.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -72,20 +80,53 @@ public class JwtUtils {
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     // You can also add a method to get all claims if needed
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
+    // Verifies the signature and expiry once and returns the claims, or null if the token is invalid
+    @Timed("restaurant.auth.jwt.parse")
+    public Claims parseValidClaims(String authToken) {
+        try {
+            return jwtParser.parseClaimsJws(authToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Rebuilds the principal from the claims written by {@link #generateJwtToken}, without a database lookup.
+     * Returns null for tokens that do not carry those claims (e.g. from {@link #generateTokenFromUsername}).
+     */
+    public UserDetailsImpl buildUserDetailsFromClaims(Claims claims) {
+        Object id = claims.get("id");
+        Object roles = claims.get("roles");
+        if (!(id instanceof Number) || !(roles instanceof List)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Object role : (List<?>) roles) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return new UserDetailsImpl(
+                ((Number) id).longValue(),
+                claims.getSubject(),
+                claims.get("email", String.class),
+                null, // the password hash never leaves the database in this mode
+                claims.get("firstName", String.class),
+                claims.get("lastName", String.class),
+                authorities);
+    }
 
+    @Timed("restaurant.auth.jwt.validate")
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
+            jwtParser.parseClaimsJws(authToken);
             return true;
         } catch (JwtException e) { // Catching generic JwtException covers SignatureException, MalformedJwtException, etc.
             logger.error("Invalid JWT token: {}", e.getMessage());
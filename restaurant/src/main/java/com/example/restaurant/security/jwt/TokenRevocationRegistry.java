@@ -0,0 +1,81 @@
+package com.example.restaurant.security.jwt;
+
+import com.example.restaurant.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Not before" marks per username. Tokens issued before a user's mark are rejected, which lets the
+ * filter trust JWT claims without asking the database whether the user changed.
+ * <p>
+ * Marks are stored on the user row (users.tokens_not_before), so they survive a restart and apply on
+ * every instance. Each instance keeps the marks it has read for jwtRevocationCheckMs before reading them
+ * again: a revocation applies at once on the instance that made it, and within that interval elsewhere.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final long NO_MARK = Long.MIN_VALUE;
+
+    @Value("${restaurant.app.jwtRevocationCheckMs:60000}")
+    private long checkIntervalMs;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
+    private final Map<String, Mark> marks = new ConcurrentHashMap<>();
+
+    public void revokeTokensIssuedBefore(String username, long epochMillis) {
+        // iat has second precision, so round up: a token from the same second is treated as revoked
+        long mark = ((epochMillis + 999) / 1000) * 1000;
+        userRepository.raiseTokensNotBefore(username, mark);
+        marks.merge(username, new Mark(mark, System.currentTimeMillis()),
+                (current, raised) -> current.notBefore >= raised.notBefore ? current : raised);
+        // Entries cached before the mark are refused on their next hit anyway; this frees them now
+        authenticationCache.invalidateAll();
+    }
+
+    public void revokeAllTokens(String username) {
+        revokeTokensIssuedBefore(username, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        long notBefore = notBefore(username);
+        if (notBefore == NO_MARK) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() < notBefore;
+    }
+
+    // The cached mark, re-read from the user row once it is older than the check interval
+    private long notBefore(String username) {
+        long now = System.currentTimeMillis();
+        Mark mark = marks.get(username);
+        if (mark == null || now - mark.readAt >= checkIntervalMs) {
+            long stored = userRepository.findTokensNotBefore(username).orElse(NO_MARK);
+            // Never go below a mark this instance set itself, even if the row has not caught up
+            long notBefore = mark == null ? stored : Math.max(stored, mark.notBefore);
+            mark = new Mark(notBefore, now);
+            marks.put(username, mark);
+        }
+        return mark.notBefore;
+    }
+
+    private static final class Mark {
+        private final long notBefore;
+        private final long readAt;
+
+        private Mark(long notBefore, long readAt) {
+            this.notBefore = notBefore;
+            this.readAt = readAt;
+        }
+    }
+}
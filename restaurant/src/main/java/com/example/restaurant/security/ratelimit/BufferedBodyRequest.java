@@ -0,0 +1,139 @@
+package com.example.restaurant.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads up to maxBytes of the request body ahead of the controller, so a filter can look at it, and
+ * hands the controller the same bytes followed by whatever was not read.
+ */
+class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] head;
+    private final boolean complete;
+    private final ServletInputStream body;
+
+    BufferedBodyRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        ServletInputStream original = request.getInputStream();
+        this.head = original.readNBytes(maxBytes);
+        this.complete = head.length < maxBytes;
+        this.body = new ReplayInputStream(original);
+    }
+
+    // The buffered bytes, or null if the body is longer than maxBytes
+    byte[] getBody() {
+        return complete ? head : null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return body;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(body, charset));
+    }
+
+    // The buffered head, then the rest of the original stream (nothing, if the head holds the whole body)
+    private final class ReplayInputStream extends ServletInputStream {
+        private final ServletInputStream original;
+        private int position;
+        private boolean finished;
+
+        private ReplayInputStream(ServletInputStream original) {
+            this.original = original;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < head.length) {
+                return head[position++] & 0xff;
+            }
+            int b = complete ? -1 : original.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position < head.length) {
+                int read = Math.min(length, head.length - position);
+                System.arraycopy(head, position, buffer, offset, read);
+                position += read;
+                return read;
+            }
+            int read = complete ? -1 : original.read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished || (complete && position == head.length);
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < head.length || complete || original.isReady();
+        }
+
+        /**
+         * When the whole body is buffered, the listener is called here: onDataAvailable for the buffered
+         * bytes, then onAllDataRead once it has read them. Otherwise the listener goes to the original stream,
+         * and the container calls it as the rest arrives; its first read returns the buffered bytes.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (readListener == null) {
+                throw new NullPointerException("readListener");
+            }
+            if (!complete) {
+                original.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        readListener.onDataAvailable();
+                    }
+
+                    @Override
+                    public void onAllDataRead() throws IOException {
+                        // The original can run out before the listener has read the buffered bytes
+                        if (position < head.length) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        readListener.onError(t);
+                    }
+                });
+                return;
+            }
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.restaurant.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link RateLimiter} to API requests. Runs right after AuthTokenFilter, so authenticated
+ * requests are limited per user (kiosks behind one NAT do not share a budget) and anonymous ones,
+ * such as public menu reads, per client IP. Behind a reverse proxy, set server.forward-headers-strategy
+ * so the client IP is the real one.
+ * <p>
+ * Sign-ins are limited per username and IP, so staff signing in from one restaurant network do not
+ * share a budget while guessing one account stays slow, plus a looser per-IP ceiling so a client
+ * cannot create buckets for arbitrarily many usernames. Overload from hashing is left to
+ * ThrottledPasswordEncoder.
+ */
+// Defined as a bean in WebSecurityConfig, like AuthTokenFilter
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // Sign-in bodies are a username and a password; anything longer is limited per IP only
+    static final int MAX_SIGNIN_BODY = 4096;
+    private static final int MAX_USERNAME_KEY = 64;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${restaurant.app.rateLimit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String group = group(request);
+        String client = client(request);
+        long waitNanos;
+        if (RateLimiter.AUTH.equals(group) && "POST".equals(request.getMethod())) {
+            BufferedBodyRequest buffered = new BufferedBodyRequest(request, MAX_SIGNIN_BODY);
+            request = buffered;
+            waitNanos = rateLimiter.tryAcquire(RateLimiter.AUTH_IP, client);
+            if (waitNanos == 0) {
+                String username = signInUsername(buffered.getBody());
+                waitNanos = rateLimiter.tryAcquire(group, username == null ? client : client + "|user:" + username);
+            }
+        } else {
+            waitNanos = rateLimiter.tryAcquire(group, client);
+        }
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        logger.debug("Rate limited {} on {} for {} s", client, group, retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in "
+                + retryAfterSeconds + " s\"}");
+    }
+
+    static String group(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+        if (uri.startsWith("/api/menu") && "GET".equals(method)) {
+            return RateLimiter.MENU;
+        }
+        if (uri.startsWith("/api/orders")) {
+            boolean create = "POST".equals(method) && (uri.length() == "/api/orders".length() || "/api/orders/".equals(uri));
+            return create ? RateLimiter.ORDERS_CREATE : RateLimiter.ORDERS;
+        }
+        // Every sign-in costs a bcrypt hash, so guessing is kept well below the general limit
+        if (uri.startsWith("/api/auth")) {
+            return RateLimiter.AUTH;
+        }
+        return RateLimiter.DEFAULT;
+    }
+
+    private String signInUsername(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            if (!username.isTextual() || username.asText().isBlank()) {
+                return null;
+            }
+            String name = username.asText().trim();
+            return name.length() > MAX_USERNAME_KEY ? name.substring(0, MAX_USERNAME_KEY) : name;
+        } catch (IOException e) {
+            // Malformed JSON: the controller rejects it, the per-IP bucket still applies
+            return null;
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.restaurant.security.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket rate limits per client and endpoint group, without locks on the request path.
+ * <p>
+ * Each bucket is a single AtomicLong: the time at which it will be full again (GCRA, the "virtual
+ * scheduling" form of a token bucket). A request advances it by one emission interval with a CAS
+ * and is allowed if that stays within the burst. A bucket whose time has passed is full, so it
+ * can be dropped without losing anything; a periodic sweep removes those, and the table never
+ * holds more than maxKeys buckets. Once it is full, clients without a bucket are let through
+ * untracked (and counted) rather than evicting active ones, except in the sign-in groups: there a
+ * new client first triggers a sweep, and is rejected if that frees nothing, so filling the table
+ * from many addresses cannot switch off the brute-force limit.
+ * <p>
+ * Limits come from {@code restaurant.app.rateLimit.perSecond} and {@code .burst}, overridable per
+ * group, e.g. {@code restaurant.app.rateLimit.orders.create.perSecond=2}.
+ */
+@Component
+public class RateLimiter {
+
+    public static final String MENU = "menu";
+    public static final String ORDERS_CREATE = "orders.create";
+    public static final String ORDERS = "orders";
+    public static final String AUTH = "auth";
+    public static final String AUTH_IP = "auth.ip";
+    public static final String DEFAULT = "default";
+    public static final List<String> GROUPS = List.of(MENU, ORDERS_CREATE, ORDERS, AUTH, AUTH_IP, DEFAULT);
+    // Groups that reject new clients when the table is full instead of letting them through
+    static final Set<String> FAIL_CLOSED = Set.of(AUTH, AUTH_IP);
+
+    private static final String PROPERTY = "restaurant.app.rateLimit";
+    // A full table is swept on demand at most this often, so a flood of new clients costs one sweep, not one each
+    private static final long SWEEP_ON_FULL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${" + PROPERTY + ".perSecond:20}")
+    private double defaultPerSecond;
+
+    @Value("${" + PROPERTY + ".burst:40}")
+    private int defaultBurst;
+
+    @Value("${" + PROPERTY + ".maxKeys:100000}")
+    private int maxKeys;
+
+    private final Map<String, Policy> policies = new LinkedHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    private final AtomicLong lastSweepOnFull = new AtomicLong(System.nanoTime() - SWEEP_ON_FULL_NANOS);
+
+    @PostConstruct
+    public void init() {
+        for (String group : GROUPS) {
+            double perSecond = environment.getProperty(PROPERTY + "." + group + ".perSecond", Double.class, defaultPerSecond);
+            int burst = environment.getProperty(PROPERTY + "." + group + ".burst", Integer.class, defaultBurst);
+            if (perSecond <= 0 || burst < 1) {
+                throw new IllegalStateException("Rate limit for '" + group + "' needs perSecond > 0 and burst >= 1");
+            }
+            policies.put(group, new Policy(perSecond, burst, FAIL_CLOSED.contains(group)));
+        }
+    }
+
+    /**
+     * Takes one request from client's bucket in group. Returns 0 if allowed, otherwise the number of
+     * nanoseconds until the request would have been allowed.
+     */
+    public long tryAcquire(String group, String client) {
+        Policy policy = policies.getOrDefault(group, policies.get(DEFAULT));
+        AtomicLong bucket = policy.buckets.get(client);
+        if (bucket == null) {
+            if (getTrackedKeys() >= maxKeys && !(policy.failClosed && sweepOnFull())) {
+                if (policy.failClosed) {
+                    policy.rejected.increment();
+                    return policy.intervalNanos;
+                }
+                untracked.increment();
+                return 0;
+            }
+            bucket = policy.buckets.computeIfAbsent(client, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            // Long.MIN_VALUE marks a fresh bucket: nanoTime has no fixed origin, so 0 is not "long ago"
+            long next = (fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt) + policy.intervalNanos;
+            long excess = next - now - policy.capacityNanos;
+            if (excess > 0) {
+                policy.rejected.increment();
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Removing a full bucket is lossless; a request racing with the removal at worst lands in a fresh bucket
+    @Scheduled(fixedDelayString = "${" + PROPERTY + ".sweepIntervalMs:10000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Policy policy : policies.values()) {
+            policy.buckets.values().removeIf(bucket -> {
+                long fullAt = bucket.get();
+                return fullAt == Long.MIN_VALUE || fullAt - now <= 0;
+            });
+        }
+    }
+
+    // Sweeps now if no other thread has within SWEEP_ON_FULL_NANOS; true if the table has room afterwards
+    private boolean sweepOnFull() {
+        long now = System.nanoTime();
+        long last = lastSweepOnFull.get();
+        if (now - last >= SWEEP_ON_FULL_NANOS && lastSweepOnFull.compareAndSet(last, now)) {
+            evictIdle();
+        }
+        return getTrackedKeys() < maxKeys;
+    }
+
+    public int getTrackedKeys() {
+        int keys = 0;
+        for (Policy policy : policies.values()) {
+            keys += policy.buckets.size();
+        }
+        return keys;
+    }
+
+    public long getRejectedCount(String group) {
+        Policy policy = policies.get(group);
+        return policy == null ? 0 : policy.rejected.sum();
+    }
+
+    public long getUntrackedCount() {
+        return untracked.sum();
+    }
+
+    // One group's limit and its buckets, keyed by client
+    private static final class Policy {
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final LongAdder rejected = new LongAdder();
+        private final boolean failClosed;
+
+        private Policy(double perSecond, int burst, boolean failClosed) {
+            this.failClosed = failClosed;
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+            this.capacityNanos = intervalNanos * burst;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.restaurant.security.services;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// No password hashing slot became free in time; the login should be retried shortly (503, not 401)
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
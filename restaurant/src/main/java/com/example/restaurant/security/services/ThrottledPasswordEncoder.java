@@ -0,0 +1,76 @@
+package com.example.restaurant.security.services;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many password hashes run at once. BCrypt is deliberately slow (tens of milliseconds of CPU
+ * per login), so a burst of logins at shift start could otherwise occupy every core and starve order
+ * traffic. Callers beyond the limit wait, in arrival order, up to waitMs for a slot and then fail with
+ * {@link PasswordHashingBusyException}. A semaphore rather than a separate pool, so it works the same
+ * on platform and virtual request threads.
+ */
+public class ThrottledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final long waitMs;
+    private final LongAdder rejected = new LongAdder();
+
+    public ThrottledPasswordEncoder(PasswordEncoder delegate, int maxConcurrent, long waitMs) {
+        this.delegate = delegate;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.waitMs = waitMs;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return withPermit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return withPermit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only inspects the stored hash, no hashing
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getActiveHashes() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaitingHashes() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private <T> T withPermit(Supplier<T> work) {
+        try {
+            if (!permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new PasswordHashingBusyException("Too many concurrent logins, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting to check the password");
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.IdempotencyRecord;
+import com.example.restaurant.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the response to each Idempotency-Key so a retried request gets the original
+ * response back instead of being executed again.
+ * <p>
+ * Keys are scoped per caller. A key is claimed with {@link #begin} before the work runs, which
+ * makes concurrent duplicates visible as {@link Outcome#IN_PROGRESS}. Completed responses are kept
+ * in memory, and optionally in the idempotency_keys table, until they expire.
+ * <p>
+ * At most maxEntries keys are held in memory. When full, expired and then completed entries are
+ * evicted to make room (a persistent store still replays those from the table); if every entry is
+ * an in-flight claim the new key is refused with {@link Outcome#FULL}.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public enum Outcome { NEW, REPLAY, IN_PROGRESS, KEY_REUSED, FULL }
+
+    @Value("${restaurant.app.idempotency.ttlMs:86400000}")
+    private long ttlMs;
+
+    @Value("${restaurant.app.idempotency.maxEntries:100000}")
+    private int maxEntries;
+
+    @Value("${restaurant.app.idempotency.persistent:false}")
+    private boolean persistent;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder persistFailures = new LongAdder();
+
+    public static final class Entry {
+        private final String requestHash;
+        private final long expiresAt;
+        private volatile boolean completed;
+        private volatile int statusCode;
+        private volatile byte[] body;
+
+        private Entry(String requestHash, long expiresAt) {
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        public int getStatusCode() { return statusCode; }
+        public byte[] getBody() { return body; }
+    }
+
+    public static final class Claim {
+        private final Outcome outcome;
+        private final Entry entry;
+
+        private Claim(Outcome outcome, Entry entry) {
+            this.outcome = outcome;
+            this.entry = entry;
+        }
+
+        public Outcome getOutcome() { return outcome; }
+        public Entry getEntry() { return entry; }
+    }
+
+    public Claim begin(String scopeKey, String requestHash) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries && !entries.containsKey(scopeKey) && !makeRoom(now)) {
+            return new Claim(Outcome.FULL, null);
+        }
+        Entry fresh = new Entry(requestHash, now + ttlMs);
+        Entry existing = entries.putIfAbsent(scopeKey, fresh);
+        if (existing != null && existing.expiresAt <= now) {
+            // Expired but not yet swept: replace it atomically
+            existing = entries.replace(scopeKey, existing, fresh) ? null : entries.get(scopeKey);
+        }
+        if (existing == null && persistent) {
+            Entry stored = loadPersisted(scopeKey, now);
+            // Only swap out our own claim; a concurrent begin may already have replaced it
+            if (stored != null && entries.replace(scopeKey, fresh, stored)) {
+                existing = stored;
+            }
+        }
+        if (existing == null || existing == fresh) {
+            return new Claim(Outcome.NEW, fresh);
+        }
+        if (!existing.requestHash.equals(requestHash)) {
+            return new Claim(Outcome.KEY_REUSED, existing);
+        }
+        return new Claim(existing.completed ? Outcome.REPLAY : Outcome.IN_PROGRESS, existing);
+    }
+
+    public void complete(String scopeKey, int statusCode, byte[] body) {
+        Entry entry = entries.get(scopeKey);
+        if (entry == null) {
+            return;
+        }
+        entry.statusCode = statusCode;
+        entry.body = body;
+        entry.completed = true;
+        if (persistent) {
+            // The work has already committed, so a failed save must not fail the request: the
+            // in-memory entry still replays on this instance until it expires or is evicted
+            try {
+                recordRepository.save(new IdempotencyRecord(scopeKey, entry.requestHash, statusCode, body,
+                        toLocalDateTime(entry.expiresAt)));
+            } catch (RuntimeException e) {
+                persistFailures.increment();
+                logger.error("Could not persist idempotency record {}: {}", scopeKey, e.getMessage(), e);
+            }
+        }
+    }
+
+    // The work failed, so a retry with the same key should run it again
+    public void abandon(String scopeKey) {
+        Entry entry = entries.get(scopeKey);
+        if (entry != null && !entry.completed) {
+            entries.remove(scopeKey, entry);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getPersistFailureCount() {
+        return persistFailures.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${restaurant.app.idempotency.sweepIntervalMs:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        trim(now, maxEntries);
+        if (persistent) {
+            int deleted = recordRepository.deleteExpired(toLocalDateTime(now));
+            if (deleted > 0) {
+                logger.debug("Deleted {} expired idempotency records", deleted);
+            }
+        }
+    }
+
+    // Called by begin when full: trims to 90% so the next keys do not each pay for a scan
+    private synchronized boolean makeRoom(long now) {
+        if (entries.size() >= maxEntries) {
+            trim(now, maxEntries - Math.max(1, maxEntries / 10));
+        }
+        return entries.size() < maxEntries;
+    }
+
+    // Expired entries go first, then completed ones; in-flight claims are kept
+    private void trim(long now, int target) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        if (entries.size() > target) {
+            entries.values().removeIf(entry -> entry.completed && entries.size() > target);
+        }
+    }
+
+    private Entry loadPersisted(String scopeKey, long now) {
+        Optional<IdempotencyRecord> record = recordRepository.findById(scopeKey);
+        if (record.isEmpty() || !toLocalDateTime(now).isBefore(record.get().getExpiresAt())) {
+            return null;
+        }
+        IdempotencyRecord stored = record.get();
+        Entry entry = new Entry(stored.getRequestHash(),
+                stored.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        entry.statusCode = stored.getStatusCode();
+        entry.body = stored.getResponseBody();
+        entry.completed = true;
+        return entry;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the whole menu, built once per catalog version.
+ * Readers share the same instance, so nothing in here may be mutated after construction.
+ */
+public final class MenuCatalog {
+
+    private final long version;
+    private final List<MenuItem> items;
+    private final Map<Long, MenuItem> itemsById;
+    private final Map<String, List<MenuItem>> itemsByCategory;
+
+    MenuCatalog(long version, List<MenuItem> source) {
+        this.version = version;
+        this.items = Collections.unmodifiableList(new ArrayList<>(source));
+
+        Map<Long, MenuItem> byId = new HashMap<>(source.size() * 2);
+        Map<String, List<MenuItem>> byCategory = new LinkedHashMap<>();
+        for (MenuItem item : source) {
+            byId.put(item.getId(), item);
+            byCategory.computeIfAbsent(categoryKey(item.getCategory()), k -> new ArrayList<>()).add(item);
+        }
+        byCategory.replaceAll((k, v) -> Collections.unmodifiableList(v));
+
+        this.itemsById = Collections.unmodifiableMap(byId);
+        this.itemsByCategory = Collections.unmodifiableMap(byCategory);
+    }
+
+    // MySQL's default collation compares categories case-insensitively, so the index does too
+    static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    public MenuItem getItem(Long id) {
+        return id == null ? null : itemsById.get(id);
+    }
+
+    public boolean hasCategory(String category) {
+        return itemsByCategory.containsKey(categoryKey(category));
+    }
+
+    public List<MenuItem> getItemsByCategory(String category) {
+        return itemsByCategory.getOrDefault(categoryKey(category), Collections.emptyList());
+    }
+}
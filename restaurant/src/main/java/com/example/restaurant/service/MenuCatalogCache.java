@@ -0,0 +1,111 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.repository.MenuItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache holding the current {@link MenuCatalog} snapshot.
+ * Writers call {@link #invalidate()}; the next reader rebuilds the snapshot with a single findAll.
+ */
+@Component
+public class MenuCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalogCache.class);
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    // Version and catalog change together, so a rebuild can only publish if no invalidation came in between
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(0, null));
+    // ReentrantLock rather than synchronized so a rebuild does not pin a virtual thread while waiting on JDBC
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public MenuCatalog get() {
+        MenuCatalog catalog = current.get().catalog;
+        if (catalog != null) {
+            hits.incrementAndGet();
+            return catalog;
+        }
+        misses.incrementAndGet();
+        return rebuild();
+    }
+
+    private MenuCatalog rebuild() {
+        rebuildLock.lock();
+        try {
+            // Another thread may have finished the rebuild while we were waiting for the lock
+            Snapshot empty = current.get();
+            if (empty.catalog != null) {
+                return empty.catalog;
+            }
+            List<MenuItem> items = menuItemRepository.findAll();
+            MenuCatalog catalog = new MenuCatalog(empty.version, items);
+            // Fails if an invalidation replaced the snapshot while we were reading; the next reader rebuilds
+            current.compareAndSet(empty, new Snapshot(empty.version, catalog));
+            rebuilds.incrementAndGet();
+            logger.debug("Rebuilt menu catalog version {} with {} items", empty.version, items.size());
+            return catalog;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the current snapshot. Inside a transaction this is deferred until after commit,
+     * so readers never rebuild from rows that might still roll back.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate();
+                }
+            });
+        } else {
+            doInvalidate();
+        }
+    }
+
+    private void doInvalidate() {
+        current.updateAndGet(snapshot -> new Snapshot(snapshot.version + 1, null));
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getRebuildCount() {
+        return rebuilds.get();
+    }
+
+    // catalog is null after an invalidation, until the next rebuild of that version publishes one
+    private static final class Snapshot {
+        private final long version;
+        private final MenuCatalog catalog;
+
+        private Snapshot(long version, MenuCatalog catalog) {
+            this.version = version;
+            this.catalog = catalog;
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.example.restaurant.service;
 
+import com.example.restaurant.dto.MenuImportResult;
+import com.example.restaurant.dto.MenuPriceAdjustment;
+import com.example.restaurant.event.MenuChangedEvent;
 import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
 import com.example.restaurant.repository.MenuItemRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MenuItemService {
@@ -14,39 +30,192 @@ public class MenuItemService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Reads are served from the cached catalog snapshot; the returned lists are unmodifiable
+    @Timed(value = "restaurant.menu.read", extraTags = {"query", "all"})
     public List<MenuItem> getAllMenuItems() {
-        return menuItemRepository.findAll();
+        return menuCatalogCache.get().getItems();
     }
 
+    @Timed(value = "restaurant.menu.read", extraTags = {"query", "byId"})
     public Optional<MenuItem> getMenuItemById(Long id) {
-        return menuItemRepository.findById(id);
+        return Optional.ofNullable(menuCatalogCache.get().getItem(id));
     }
 
+    @Transactional
     public MenuItem createMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuCatalogCache.invalidate();
+        eventPublisher.publishEvent(MenuChangedEvent.upserted(saved));
+        return saved;
     }
 
+    @Transactional
     public MenuItem updateMenuItem(Long id, MenuItem menuItemDetails) {
         MenuItem menuItem = menuItemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("MenuItem not found with id: " + id));
 
-        menuItem.setName(menuItemDetails.getName());
-        menuItem.setDescription(menuItemDetails.getDescription());
-        menuItem.setPrice(menuItemDetails.getPrice());
-        menuItem.setCategory(menuItemDetails.getCategory());
-        menuItem.setImageUrl(menuItemDetails.getImageUrl());
+        copyDetails(menuItemDetails, menuItem);
 
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuCatalogCache.invalidate();
+        eventPublisher.publishEvent(MenuChangedEvent.upserted(saved));
+        return saved;
     }
 
+    @Transactional
     public void deleteMenuItem(Long id) {
         if (!menuItemRepository.existsById(id)) {
             throw new RuntimeException("MenuItem not found with id: " + id);
         }
         menuItemRepository.deleteById(id);
+        menuCatalogCache.invalidate();
+        eventPublisher.publishEvent(MenuChangedEvent.removed(id));
+    }
+
+    /**
+     * Bulk upsert for catalog syncs. An item with an id updates that item; one without an id updates the
+     * existing item with the same name and category (case-insensitive), or is created. The current menu is
+     * read once and only items that differ are written, as JDBC batches in one transaction, followed by a
+     * single cache invalidation and MenuChangedEvent.
+     */
+    @Transactional
+    @Timed("restaurant.menu.import")
+    public MenuImportResult upsertMenuItems(List<MenuItem> items) {
+        List<MenuItem> existing = menuItemRepository.findAll();
+        Map<Long, MenuItem> byId = new HashMap<>(existing.size() * 2);
+        Map<String, MenuItem> byKey = new HashMap<>(existing.size() * 2);
+        for (MenuItem item : existing) {
+            byId.put(item.getId(), item);
+            byKey.putIfAbsent(importKey(item), item);
+        }
+
+        Set<Long> matchedIds = new HashSet<>();
+        Set<String> newKeys = new HashSet<>();
+        List<MenuItem> created = new ArrayList<>();
+        List<MenuItem> updated = new ArrayList<>();
+        int unchanged = 0;
+        for (MenuItem source : items) {
+            validate(source);
+            MenuItem target = source.getId() != null ? byId.get(source.getId()) : byKey.get(importKey(source));
+            if (target == null) {
+                if (source.getId() != null) {
+                    throw new IllegalArgumentException("MenuItem not found with id: " + source.getId());
+                }
+                if (!newKeys.add(importKey(source))) {
+                    throw new IllegalArgumentException("Duplicate menu item in import: " + source.getName());
+                }
+                MenuItem item = new MenuItem();
+                copyDetails(source, item);
+                created.add(item);
+            } else if (!matchedIds.add(target.getId())) {
+                throw new IllegalArgumentException("Menu item appears more than once in import: " + target.getId());
+            } else if (sameDetails(source, target)) {
+                unchanged++;
+            } else {
+                // Managed entity: the change is flushed as part of the batched UPDATEs at commit
+                copyDetails(source, target);
+                updated.add(target);
+            }
+        }
+        menuItemRepository.saveAll(created);
+
+        List<MenuItem> changed = new ArrayList<>(created);
+        changed.addAll(updated);
+        publishBulkChange(changed);
+        return new MenuImportResult(created.size(), updated.size(), unchanged);
+    }
+
+    /** Applies one percentage or fixed price change to many items in one transaction. */
+    @Transactional
+    @Timed("restaurant.menu.prices")
+    public MenuImportResult adjustPrices(MenuPriceAdjustment adjustment) {
+        BigDecimal percent = adjustment.getPercent();
+        Money amount = adjustment.getAmount();
+        if ((percent == null) == (amount == null)) {
+            throw new IllegalArgumentException("Exactly one of percent and amount is required");
+        }
+
+        List<MenuItem> targets;
+        if (adjustment.getIds() != null && !adjustment.getIds().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(adjustment.getIds());
+            targets = menuItemRepository.findAllById(ids);
+            if (targets.size() != ids.size()) {
+                targets.forEach(item -> ids.remove(item.getId()));
+                throw new IllegalArgumentException("MenuItem not found with id(s): " + ids);
+            }
+        } else if (adjustment.getCategory() != null) {
+            targets = menuItemRepository.findByCategoryIgnoreCase(adjustment.getCategory().trim());
+        } else {
+            targets = menuItemRepository.findAll();
+        }
+
+        BigDecimal factor = percent == null ? null : BigDecimal.ONE.add(percent.movePointLeft(2));
+        List<MenuItem> updated = new ArrayList<>();
+        int unchanged = 0;
+        for (MenuItem item : targets) {
+            Money price = item.getPrice();
+            Money newPrice = price == null ? null : factor != null ? Money.of(price.toDecimal().multiply(factor)) : price.plus(amount);
+            if (newPrice == null || newPrice.equals(price)) {
+                unchanged++;
+                continue;
+            }
+            if (newPrice.getCents() < 0) {
+                throw new IllegalArgumentException("Price change would make the price of '" + item.getName() + "' negative");
+            }
+            item.setPrice(newPrice);
+            updated.add(item);
+        }
+        publishBulkChange(updated);
+        return new MenuImportResult(0, updated.size(), unchanged);
+    }
+
+    private void publishBulkChange(List<MenuItem> changed) {
+        if (!changed.isEmpty()) {
+            menuCatalogCache.invalidate();
+            eventPublisher.publishEvent(new MenuChangedEvent(changed, List.of()));
+        }
+    }
+
+    private static void validate(MenuItem item) {
+        if (item.getName() == null || item.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Menu item name is required");
+        }
+        if (item.getPrice() == null || item.getPrice().getCents() < 0) {
+            throw new IllegalArgumentException("Menu item '" + item.getName() + "' needs a price of zero or more");
+        }
+    }
+
+    // Items without an id are matched on name and category, compared the way MySQL's default collation does
+    private static String importKey(MenuItem item) {
+        String name = item.getName() == null ? "" : item.getName().trim().toLowerCase(Locale.ROOT);
+        String category = item.getCategory() == null ? "" : item.getCategory().trim().toLowerCase(Locale.ROOT);
+        return name + '\u0000' + category;
+    }
+
+    private static boolean sameDetails(MenuItem source, MenuItem target) {
+        return Objects.equals(source.getName(), target.getName())
+                && Objects.equals(source.getDescription(), target.getDescription())
+                && Objects.equals(source.getPrice(), target.getPrice())
+                && Objects.equals(source.getCategory(), target.getCategory())
+                && Objects.equals(source.getImageUrl(), target.getImageUrl());
+    }
+
+    private static void copyDetails(MenuItem source, MenuItem target) {
+        target.setName(source.getName());
+        target.setDescription(source.getDescription());
+        target.setPrice(source.getPrice());
+        target.setCategory(source.getCategory());
+        target.setImageUrl(source.getImageUrl());
     }
 
+    @Timed(value = "restaurant.menu.read", extraTags = {"query", "byCategory"})
     public List<MenuItem> findByCategory(String category) {
-        return menuItemRepository.findByCategory(category);
+        return menuCatalogCache.get().getItemsByCategory(category);
     }
-}
\ No newline at end of file
+}
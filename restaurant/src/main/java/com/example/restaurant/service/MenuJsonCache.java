@@ -0,0 +1,127 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered JSON (plain and gzipped) for the menu endpoints, keyed by catalog version.
+ * A body is rendered once per catalog version and then served as-is until the menu changes.
+ */
+@Component
+public class MenuJsonCache {
+
+    private static final String ALL_ITEMS_KEY = "\u0000all";
+
+    // Shared by every category the menu does not have, so arbitrary ?category= values cannot grow the cache
+    private static final RenderedBody EMPTY = rendered("[]".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile RenderedCatalog rendered = new RenderedCatalog(-1);
+
+    @Timed(value = "restaurant.menu.render", extraTags = {"query", "all"})
+    public RenderedBody allItems() {
+        MenuCatalog catalog = menuCatalogCache.get();
+        return renderedFor(catalog).bodies.computeIfAbsent(ALL_ITEMS_KEY, k -> render(catalog.getItems()));
+    }
+
+    @Timed(value = "restaurant.menu.render", extraTags = {"query", "byCategory"})
+    public RenderedBody itemsByCategory(String category) {
+        MenuCatalog catalog = menuCatalogCache.get();
+        if (!catalog.hasCategory(category)) {
+            return EMPTY;
+        }
+        return renderedFor(catalog).bodies.computeIfAbsent(MenuCatalog.categoryKey(category),
+                k -> render(catalog.getItemsByCategory(category)));
+    }
+
+    private RenderedCatalog renderedFor(MenuCatalog catalog) {
+        RenderedCatalog current = rendered;
+        if (current.version != catalog.getVersion()) {
+            current = new RenderedCatalog(catalog.getVersion());
+            rendered = current;
+        }
+        return current;
+    }
+
+    private RenderedBody render(List<MenuItem> items) {
+        try {
+            return rendered(objectMapper.writeValueAsBytes(items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render menu JSON", e);
+        }
+    }
+
+    private static RenderedBody rendered(byte[] json) {
+        return new RenderedBody(json, gzip(json), digest(json));
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // ETags are derived from the content, so they stay stable across restarts and instances
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class RenderedCatalog {
+        private final long version;
+        private final ConcurrentMap<String, RenderedBody> bodies = new ConcurrentHashMap<>();
+
+        private RenderedCatalog(long version) {
+            this.version = version;
+        }
+    }
+
+    public static final class RenderedBody {
+        private final byte[] json;
+        private final byte[] gzippedJson;
+        private final String etag;
+        private final String gzipEtag;
+
+        RenderedBody(byte[] json, byte[] gzippedJson, String digest) {
+            this.json = json;
+            this.gzippedJson = gzippedJson;
+            this.etag = "\"" + digest + "\"";
+            // A different representation needs a different strong validator
+            this.gzipEtag = "\"" + digest + "-gzip\"";
+        }
+
+        public byte[] getJson() { return json; }
+        public byte[] getGzippedJson() { return gzippedJson; }
+        public String getEtag() { return etag; }
+        public String getGzipEtag() { return gzipEtag; }
+    }
+}
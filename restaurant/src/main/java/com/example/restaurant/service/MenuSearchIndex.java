@@ -0,0 +1,528 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.event.MenuChangedEvent;
+import com.example.restaurant.model.MenuItem;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over menu item name, category and description.
+ * <p>
+ * Text is lower-cased, stripped of accents and split into terms. A query term matches an indexed
+ * term exactly, as a prefix (so "marg" finds "margherita"), or within one edit (two for long
+ * terms) so "margarita" and "chiken" still match. Every query term must match; items are ranked
+ * by field weight (name 3, category 2, description 1) times match quality (exact 1, prefix 0.6,
+ * fuzzy 0.4), summed over the query terms.
+ * <p>
+ * Items live in dense int slots and postings are primitive arrays, so a query is a handful of
+ * array scans over pooled scratch space, without boxing. The index is built from the menu
+ * catalog on first use and then kept current item by item from {@link MenuChangedEvent}s after
+ * each menu transaction commits.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "of", "with", "in", "on", "or");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.6;
+    private static final double FUZZY = 0.4;
+
+    // Prefix and fuzzy matching start at this query term length; shorter terms only match exactly
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final int SCRATCH_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sorted so a prefix is a sub-map; the same postings grouped by term length for fuzzy candidates
+    private final NavigableMap<String, Posting> postings = new TreeMap<>();
+    private final Map<Integer, List<Posting>> postingsByLength = new HashMap<>();
+    // slot -> item (null while free), and each item's slot and terms so it can be removed again
+    private final List<MenuItem> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, String[]> termsById = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private volatile boolean built;
+
+    // Scratch arrays grow to the slot count, so only a few are kept (rather than one per request thread,
+    // which with virtual threads would be one per request); extra concurrent searches allocate their own
+    private final BlockingQueue<Scratch> scratchPool = new ArrayBlockingQueue<>(SCRATCH_POOL_SIZE);
+
+    /**
+     * Ranked search. category, if given, restricts results to that category (case-insensitive).
+     * Returns an empty list for a query without searchable terms.
+     */
+    @Timed("restaurant.menu.search")
+    public List<MenuItem> search(String query, String category, int limit) {
+        ensureBuilt();
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String categoryKey = category != null ? MenuCatalog.categoryKey(category) : null;
+
+        Scratch s = scratchPool.poll();
+        if (s == null) {
+            s = new Scratch();
+        }
+        lock.readLock().lock();
+        try {
+            s.prepare(slots.size(), queryTerms.size());
+            int matched = 0;
+            for (int k = 0; k < queryTerms.size(); k++) {
+                matched = s.scoreTerm(this, queryTerms.get(k), k);
+                if (matched == 0) {
+                    return List.of();
+                }
+            }
+            return s.topItems(slots, matched, categoryKey, limit);
+        } finally {
+            lock.readLock().unlock();
+            scratchPool.offer(s);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return; // not built yet: the first search reads the catalog, which already has this change
+            }
+            int changes = event.getUpserted().size() + event.getRemovedIds().size();
+            if (changes > 100 && changes > slotById.size() / 4) {
+                // A bulk change touching much of the menu: rebuilding from the catalog on the next search is cheaper
+                built = false;
+                return;
+            }
+            for (Long id : event.getRemovedIds()) {
+                removeLocked(id);
+            }
+            for (MenuItem item : event.getUpserted()) {
+                removeLocked(item.getId());
+                addLocked(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the whole index, e.g. after a bulk menu change. */
+    public void rebuild(Collection<MenuItem> menuItems) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postingsByLength.clear();
+            slots.clear();
+            slotById.clear();
+            termsById.clear();
+            freeCount = 0;
+            for (MenuItem item : menuItems) {
+                addLocked(item);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The catalog is read under the write lock, so a concurrent change is either in it or applied right after
+    private void ensureBuilt() {
+        if (!built) {
+            lock.writeLock().lock();
+            try {
+                if (!built) {
+                    rebuild(menuCatalogCache.get().getItems());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void addLocked(MenuItem item) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, item.getDescription(), DESCRIPTION_WEIGHT);
+        addField(weights, item.getCategory(), CATEGORY_WEIGHT);
+        addField(weights, item.getName(), NAME_WEIGHT);
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+            slots.set(slot, item);
+        } else {
+            slot = slots.size();
+            slots.add(item);
+        }
+        slotById.put(item.getId(), slot);
+        termsById.put(item.getId(), weights.keySet().toArray(new String[0]));
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, this::newPosting).add(slot, weight));
+    }
+
+    private Posting newPosting(String term) {
+        Posting posting = new Posting(term);
+        List<Posting> sameLength = postingsByLength.computeIfAbsent(term.length(), l -> new ArrayList<>());
+        posting.lengthIndex = sameLength.size();
+        sameLength.add(posting);
+        return posting;
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String term : termsById.remove(id)) {
+            Posting posting = postings.get(term);
+            posting.remove(slot);
+            if (posting.size == 0) {
+                postings.remove(term);
+                removeFromLengthList(posting);
+            }
+        }
+        slots.set(slot, null);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Swap-remove, so dropping a term does not shift the rest of its length list
+    private void removeFromLengthList(Posting posting) {
+        List<Posting> sameLength = postingsByLength.get(posting.term.length());
+        Posting last = sameLength.remove(sameLength.size() - 1);
+        if (last != posting) {
+            last.lengthIndex = posting.lengthIndex;
+            sameLength.set(posting.lengthIndex, last);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String plain = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                // Decompose accented letters so the marks can be dropped: "crème brûlée" matches "creme brulee"
+                plain = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= plain.length(); i++) {
+            char c = i < plain.length() ? plain.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && token.length() > 0) {
+                String term = token.toString();
+                if (!STOP_WORDS.contains(term)) {
+                    tokens.add(term);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    // Optimal string alignment distance (adjacent swaps count as one edit), abandoned once it exceeds maxEdits.
+    // rows holds three scratch rows of at least b.length() + 1 entries.
+    static boolean withinEdits(String a, String b, int maxEdits, int[][] rows) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] previous2 = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    // One bit per distinct character (folded into 64 buckets); n edits add or drop at most n bits
+    static long charMask(String term) {
+        long mask = 0;
+        for (int i = 0; i < term.length(); i++) {
+            mask |= 1L << (term.charAt(i) & 63);
+        }
+        return mask;
+    }
+
+    // Slots containing one term, each with the weight of the best field the term appears in
+    private static final class Posting {
+        private final String term;
+        private final long charMask;
+        private int[] slots = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+        private int lengthIndex;
+
+        private Posting(String term) {
+            this.term = term;
+            this.charMask = charMask(term);
+        }
+
+        private void add(int slot, int weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = (byte) weight;
+            size++;
+        }
+
+        private void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Query state, used by one search at a time. Arrays are indexed by slot and tagged with stamps instead of being
+     * cleared: a value only counts when its stamp belongs to the current query term.
+     */
+    private static final class Scratch {
+        private int[] termStamp = new int[0];
+        private int[] matchedStamp = new int[0];
+        private double[] termScore = new double[0];
+        private double[] total = new double[0];
+        private int[] hits = new int[0];
+        private int[] matched = new int[0];
+        private int[] heap = new int[0];
+        private final int[][] editRows = new int[3][32];
+        private int stamp;
+        private int queryBase;
+
+        private void prepare(int slotCount, int termCount) {
+            if (termStamp.length < slotCount) {
+                int capacity = Math.max(slotCount, termStamp.length * 2);
+                termStamp = new int[capacity];
+                matchedStamp = new int[capacity];
+                termScore = new double[capacity];
+                total = new double[capacity];
+                hits = new int[capacity];
+                matched = new int[capacity];
+                stamp = 0;
+            }
+            if (stamp > Integer.MAX_VALUE - 2 * (termCount + 1)) {
+                Arrays.fill(termStamp, 0);
+                Arrays.fill(matchedStamp, 0);
+                stamp = 0;
+            }
+            queryBase = stamp;
+            stamp += 2 * (termCount + 1);
+        }
+
+        // Scores query term k; returns how many slots have now matched every term up to and including it
+        private int scoreTerm(MenuSearchIndex index, String queryTerm, int k) {
+            int termId = queryBase + 2 * k + 1;
+            int matchedBefore = queryBase + 2 * k;
+            int count = collect(index.postings.get(queryTerm), EXACT, k, termId, matchedBefore, 0);
+            if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+                for (Posting posting : index.postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).values()) {
+                    count = collect(posting, PREFIX, k, termId, matchedBefore, count);
+                }
+            }
+            if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+                int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+                long queryMask = charMask(queryTerm);
+                for (int length = queryTerm.length() - maxEdits; length <= queryTerm.length() + maxEdits; length++) {
+                    List<Posting> sameLength = index.postingsByLength.get(length);
+                    if (sameLength == null) {
+                        continue;
+                    }
+                    if (editRows[0].length <= length) {
+                        for (int r = 0; r < editRows.length; r++) {
+                            editRows[r] = new int[length + 1];
+                        }
+                    }
+                    for (int p = 0; p < sameLength.size(); p++) {
+                        Posting posting = sameLength.get(p);
+                        // Cheap character-set check first: most terms differ in more characters than edits allow
+                        if (Long.bitCount(posting.charMask & ~queryMask) <= maxEdits
+                                && Long.bitCount(queryMask & ~posting.charMask) <= maxEdits
+                                && !posting.term.equals(queryTerm)
+                                && withinEdits(queryTerm, posting.term, maxEdits, editRows)) {
+                            count = collect(posting, FUZZY, k, termId, matchedBefore, count);
+                        }
+                    }
+                }
+            }
+
+            int matchedNow = queryBase + 2 * (k + 1);
+            for (int i = 0; i < count; i++) {
+                int slot = hits[i];
+                total[slot] = (k == 0 ? 0 : total[slot]) + termScore[slot];
+                matchedStamp[slot] = matchedNow;
+                matched[i] = slot;
+            }
+            return count;
+        }
+
+        // Best score per slot for this term; after the first term only slots that matched every earlier term count
+        private int collect(Posting posting, double quality, int k, int termId, int matchedBefore, int count) {
+            if (posting == null) {
+                return count;
+            }
+            for (int i = 0; i < posting.size; i++) {
+                int slot = posting.slots[i];
+                if (k > 0 && matchedStamp[slot] != matchedBefore) {
+                    continue;
+                }
+                double score = posting.weights[i] * quality;
+                if (termStamp[slot] != termId) {
+                    termStamp[slot] = termId;
+                    termScore[slot] = score;
+                    hits[count++] = slot;
+                } else if (score > termScore[slot]) {
+                    termScore[slot] = score;
+                }
+            }
+            return count;
+        }
+
+        // Keeps the best `limit` matches in a heap with the weakest on top, rather than sorting every match
+        private List<MenuItem> topItems(List<MenuItem> slots, int count, String categoryKey, int limit) {
+            int size = 0;
+            int capacity = Math.min(limit, count);
+            if (heap.length < capacity) {
+                heap = new int[capacity];
+            }
+            for (int i = 0; i < count; i++) {
+                int slot = matched[i];
+                if (categoryKey != null && !categoryKey.equals(MenuCatalog.categoryKey(slots.get(slot).getCategory()))) {
+                    continue;
+                }
+                if (size < capacity) {
+                    heap[size] = slot;
+                    siftUp(slots, size++);
+                } else if (ranksBefore(slots, slot, heap[0])) {
+                    heap[0] = slot;
+                    siftDown(slots, 0, size);
+                }
+            }
+            MenuItem[] results = new MenuItem[size];
+            for (int end = size - 1; end >= 0; end--) {
+                results[end] = slots.get(heap[0]);
+                heap[0] = heap[end];
+                siftDown(slots, 0, end);
+            }
+            return Arrays.asList(results);
+        }
+
+        private void siftUp(List<MenuItem> slots, int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!ranksBefore(slots, heap[parent], heap[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(List<MenuItem> slots, int i, int size) {
+            while (true) {
+                int weakest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (ranksBefore(slots, heap[weakest], heap[child])) {
+                        weakest = child;
+                    }
+                }
+                if (weakest == i) {
+                    return;
+                }
+                swap(i, weakest);
+                i = weakest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int slot = heap[i];
+            heap[i] = heap[j];
+            heap[j] = slot;
+        }
+
+        // Higher score first; equal scores by name so results are stable
+        private boolean ranksBefore(List<MenuItem> slots, int a, int b) {
+            if (total[a] != total[b]) {
+                return total[a] > total[b];
+            }
+            String nameA = slots.get(a).getName();
+            String nameB = slots.get(b).getName();
+            if (nameA == null || nameB == null) {
+                return nameA != null;
+            }
+            return String.CASE_INSENSITIVE_ORDER.compare(nameA, nameB) < 0;
+        }
+    }
+}
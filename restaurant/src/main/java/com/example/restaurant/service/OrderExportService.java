@@ -0,0 +1,143 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.OrderLineView;
+import com.example.restaurant.dto.OrderSummaryView;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.OrderExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes order history straight from the export cursor to the response, one order at a time.
+ * NDJSON has one order (with its items) per line, shaped like the paged listing; CSV has one line
+ * per order item, with the order columns repeated.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER =
+            "order_id,order_time,customer_name,status,order_total,item_id,menu_item_id,menu_item_name,quantity,unit_price\r\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private OrderExportRepository orderExportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Fails fast on a bad status, before the response is committed
+    public String statusFilter(String status) {
+        return status == null ? null : OrderStatus.fromValue(status).name();
+    }
+
+    /** Streams matching orders to out and returns how many were written. */
+    public long export(Format format, String status, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            long orders;
+            if (format == Format.NDJSON) {
+                SequenceWriter lines = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                orders = orderExportRepository.forEachOrder(status, from, to, order -> {
+                    try {
+                        lines.write(order);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                lines.flush();
+                if (orders > 0) {
+                    writer.write('\n');
+                }
+            } else {
+                writer.write(CSV_HEADER);
+                writer.flush(); // the client sees the header while the query is still running
+                orders = orderExportRepository.forEachOrder(status, from, to, order -> {
+                    try {
+                        writeCsv(writer, order);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            writer.flush();
+            return orders;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor has already been closed by the time this surfaces
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsv(Writer writer, OrderSummaryView order) throws IOException {
+        if (order.getItems().isEmpty()) {
+            writeOrderColumns(writer, order);
+            writer.write(",,,,,\r\n");
+            return;
+        }
+        for (OrderLineView item : order.getItems()) {
+            writeOrderColumns(writer, order);
+            writer.write(',');
+            writer.write(String.valueOf(item.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(item.getMenuItemId()));
+            writer.write(',');
+            writeCsvText(writer, item.getMenuItemName());
+            writer.write(',');
+            writer.write(Integer.toString(item.getQuantity()));
+            writer.write(',');
+            writer.write(item.getUnitPrice().toString());
+            writer.write("\r\n");
+        }
+    }
+
+    private static void writeOrderColumns(Writer writer, OrderSummaryView order) throws IOException {
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        if (order.getOrderTime() != null) {
+            writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(order.getOrderTime()));
+        }
+        writer.write(',');
+        writeCsvText(writer, order.getCustomerName());
+        writer.write(',');
+        writeCsvText(writer, order.getStatus());
+        writer.write(',');
+        writer.write(order.getTotalPrice().toString());
+    }
+
+    // RFC 4180 quoting. Text that a spreadsheet would run as a formula gets a leading apostrophe.
+    // Every text column goes through here, even ones the application controls today.
+    static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean formula = "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
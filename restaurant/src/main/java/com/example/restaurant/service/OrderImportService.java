@@ -0,0 +1,99 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.repository.MenuItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads historical orders in bulk. Orders are persisted in chunks that match the JDBC batch size,
+ * flushing and clearing the persistence context between chunks so memory stays flat.
+ */
+@Service
+public class OrderImportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Transactional
+    public int importOrders(List<CustomerOrder> orders) {
+        Map<Long, Money> menuPrices = resolveMenuPrices(orders);
+
+        int imported = 0;
+        for (CustomerOrder source : orders) {
+            CustomerOrder order = new CustomerOrder();
+            order.setCustomerName(source.getCustomerName());
+            order.setOrderTime(source.getOrderTime());
+            order.setStatus(source.getStatus());
+
+            for (OrderItem sourceItem : source.getOrderItems()) {
+                Long menuItemId = sourceItem.getMenuItem().getId();
+                OrderItem item = new OrderItem();
+                // A reference is enough for the foreign key; the IDs were validated above
+                item.setMenuItem(entityManager.getReference(MenuItem.class, menuItemId));
+                item.setQuantity(sourceItem.getQuantity());
+                item.setUnitPrice(sourceItem.getUnitPrice() != null ? sourceItem.getUnitPrice() : menuPrices.get(menuItemId));
+                order.addOrderItem(item);
+            }
+            order.calculateTotalPrice();
+            entityManager.persist(order);
+            salesReportService.recordCreated(order);
+
+            if (++imported % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return imported;
+    }
+
+    private Map<Long, Money> resolveMenuPrices(List<CustomerOrder> orders) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (CustomerOrder order : orders) {
+            if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+                throw new RuntimeException("Imported orders must contain at least one item.");
+            }
+            for (OrderItem item : order.getOrderItems()) {
+                if (item.getMenuItem() == null || item.getMenuItem().getId() == null) {
+                    throw new RuntimeException("MenuItem ID is required for each order item.");
+                }
+                ids.add(item.getMenuItem().getId());
+            }
+        }
+
+        Map<Long, Money> prices = new HashMap<>(ids.size() * 2);
+        for (MenuItem menuItem : menuItemRepository.findAllById(ids)) {
+            prices.put(menuItem.getId(), menuItem.getPrice());
+        }
+        if (prices.size() != ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !prices.containsKey(id)).collect(Collectors.toList());
+            throw new RuntimeException("Menu Item not found with ID(s): " + missing);
+        }
+        return prices;
+    }
+}
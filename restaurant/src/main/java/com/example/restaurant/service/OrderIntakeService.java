@@ -0,0 +1,580 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.IntakeStatusView;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous order intake, enabled with {@code restaurant.app.orders.intakeMode=async}.
+ * <p>
+ * {@link #submit} validates the order against the menu snapshot, appends it to a local journal,
+ * fsyncs, and puts it on a bounded queue; the caller gets a reference back without waiting for the
+ * database. Concurrent submits share fsyncs: whoever syncs first covers every line appended before it.
+ * A single writer thread drains up to {@code batchSize} orders at a time and creates them in one
+ * transaction through {@link OrderService#createOrders}. When the queue is full, submit returns
+ * {@code null} and the controller answers 429.
+ * <p>
+ * Only transient database failures (connection lost, lock timeout, deadlock) are retried. If a group
+ * fails for any other reason its orders are written one at a time, and an order that fails on its own
+ * is marked FAILED rather than blocking the queue.
+ * <p>
+ * The journal holds ENQ, ACK and FAIL lines. On startup every ENQ without an ACK or FAIL is replayed;
+ * orders whose transaction committed before the ACK was written are recognised by their
+ * intake_reference and are not created twice.
+ */
+@Service
+@ConditionalOnProperty(name = "restaurant.app.orders.intakeMode", havingValue = "async")
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${restaurant.app.orders.intake.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${restaurant.app.orders.intake.batchSize:100}")
+    private int batchSize;
+
+    @Value("${restaurant.app.orders.intake.journalPath:data/order-intake.journal}")
+    private String journalPath;
+
+    // false trades crash safety for latency: the OS decides when journal writes reach the disk
+    @Value("${restaurant.app.orders.intake.fsync:true}")
+    private boolean fsync;
+
+    // The journal is rewritten with only the unfinished orders once it grows past this size
+    @Value("${restaurant.app.orders.intake.journalCompactBytes:67108864}")
+    private long journalCompactBytes;
+
+    @Value("${restaurant.app.orders.intake.statusRetention:100000}")
+    private int statusRetention;
+
+    @Value("${restaurant.app.orders.intake.retryBackoffMs:1000}")
+    private long retryBackoffMs;
+
+    private BlockingQueue<Pending> queue;
+    private Map<String, IntakeStatusView> statuses;
+    // Orders journaled but not yet ACKed or FAILed; the source for journal compaction
+    private final Map<String, CustomerOrder> unfinished = new ConcurrentHashMap<>();
+
+    // Guards appends and the journal channel. ReentrantLock rather than synchronized so it does not pin a virtual thread.
+    private final ReentrantLock journalLock = new ReentrantLock();
+    // Held while forcing the journal to disk, never while waiting for journalLock; compaction takes both
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel journal;
+    // Lines appended and lines known to be on disk, for sharing one fsync between concurrent submits
+    private volatile long appendedLines;
+    private volatile long syncedLines;
+
+    private volatile boolean running;
+    // false until journal recovery has been queued, so replayed orders and new ones cannot race for capacity
+    private volatile boolean accepting;
+    private Thread writer;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        statuses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IntakeStatusView> eldest) {
+                return size() > statusRetention;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        Path path = Paths.get(journalPath);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        List<Pending> recovered = recover(path);
+        compact(path, recovered);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "order-intake-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        // Recovered orders may exceed the queue capacity; put() waits for the writer to make room
+        for (Pending pending : recovered) {
+            try {
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        accepting = true;
+        logger.info("Async order intake started (capacity {}, batch size {}, {} orders recovered from journal)",
+                queueCapacity, batchSize, recovered.size());
+    }
+
+    /**
+     * Validates and enqueues an order. Returns its intake reference, or null when the queue is full.
+     * Throws IllegalArgumentException if the order has no items or references unknown menu items.
+     */
+    public String submit(CustomerOrder orderRequest) {
+        validate(orderRequest);
+        String reference = UUID.randomUUID().toString();
+        CustomerOrder copy = copyOf(orderRequest, reference);
+
+        long line;
+        journalLock.lock();
+        try {
+            // The writer is the only consumer, so capacity checked under the lock cannot shrink before offer()
+            if (!accepting || queue.remainingCapacity() == 0) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            JournalRecord record = new JournalRecord();
+            record.setType("ENQ");
+            record.setRef(reference);
+            record.setOrder(copy);
+            line = appendLocked(record);
+            unfinished.put(reference, copy);
+            statuses.put(reference, new IntakeStatusView(reference, QUEUED, null, null));
+            // The writer may commit the order before the fsync below; the database is then the durable copy
+            queue.offer(new Pending(reference, copy));
+        } finally {
+            journalLock.unlock();
+        }
+        // Outside journalLock, so other submits keep appending while this one waits for the disk
+        awaitDurable(line);
+        accepted.incrementAndGet();
+        return reference;
+    }
+
+    public IntakeStatusView getStatus(String reference) {
+        return statuses.get(reference);
+    }
+
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getCommittedCount() {
+        return committed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    private void validate(CustomerOrder orderRequest) {
+        if (orderRequest.getOrderItems() == null || orderRequest.getOrderItems().isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item.");
+        }
+        // Caught here, as the writer would otherwise only find out from the database
+        if (orderRequest.getCustomerName() != null
+                && orderRequest.getCustomerName().length() > CustomerOrder.CUSTOMER_NAME_LENGTH) {
+            throw new IllegalArgumentException("Customer name must be at most " + CustomerOrder.CUSTOMER_NAME_LENGTH + " characters.");
+        }
+        MenuCatalog catalog = menuCatalogCache.get();
+        List<Long> missing = new ArrayList<>();
+        for (OrderItem item : orderRequest.getOrderItems()) {
+            if (item.getMenuItem() == null || item.getMenuItem().getId() == null) {
+                throw new IllegalArgumentException("MenuItem ID is required for each order item.");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for menu item " + item.getMenuItem().getId());
+            }
+            if (catalog.getItem(item.getMenuItem().getId()) == null) {
+                missing.add(item.getMenuItem().getId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Menu Item not found with ID(s): " + missing);
+        }
+    }
+
+    // Keeps only what OrderService reads, so the journal line stays small and the caller's object is not shared
+    private static CustomerOrder copyOf(CustomerOrder orderRequest, String reference) {
+        CustomerOrder copy = new CustomerOrder();
+        copy.setCustomerName(orderRequest.getCustomerName());
+        copy.setIntakeReference(reference);
+        List<OrderItem> items = new ArrayList<>(orderRequest.getOrderItems().size());
+        for (OrderItem requested : orderRequest.getOrderItems()) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId(requested.getMenuItem().getId());
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            item.setQuantity(requested.getQuantity());
+            items.add(item);
+        }
+        copy.setOrderItems(items);
+        return copy;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order intake writer failed on a batch of {}: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) throws InterruptedException {
+        List<CustomerOrder> requests = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            requests.add(pending.order);
+        }
+        long backoff = retryBackoffMs;
+        while (running) {
+            List<CustomerOrder> saved;
+            try {
+                saved = orderService.createOrders(requests);
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    // One bad order must not sink the rest of the group
+                    logger.warn("Group commit of {} orders rejected ({}); writing them one by one", batch.size(), e.getMessage());
+                    writeIndividually(batch);
+                    return;
+                }
+                // The database is unavailable: keep the batch (it is still in the journal) and try again
+                logger.warn("Group commit of {} orders failed, retrying in {} ms: {}", batch.size(), backoff, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(backoff);
+                backoff = nextBackoff(backoff);
+                continue;
+            }
+            batches.incrementAndGet();
+            acknowledge(saved);
+            return;
+        }
+    }
+
+    private void writeIndividually(List<Pending> batch) throws InterruptedException {
+        for (Pending pending : batch) {
+            long backoff = retryBackoffMs;
+            while (running) {
+                CustomerOrder saved;
+                try {
+                    saved = orderService.createOrder(pending.order);
+                } catch (RuntimeException e) {
+                    if (!isTransient(e)) {
+                        markFailed(pending.reference, e.getMessage());
+                        break;
+                    }
+                    logger.warn("Order {} could not be written, retrying in {} ms: {}", pending.reference, backoff, e.getMessage());
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                    backoff = nextBackoff(backoff);
+                    continue;
+                }
+                acknowledge(List.of(saved));
+                break;
+            }
+        }
+    }
+
+    // Failures that can go away on their own. Anything else (a constraint violation, bad data) fails
+    // the same way on every attempt, so retrying it would only stall the queue.
+    static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof CannotGetJdbcConnectionException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private static long nextBackoff(long backoff) {
+        return Math.min(backoff * 2, 30_000);
+    }
+
+    private void acknowledge(List<CustomerOrder> savedOrders) {
+        journalLock.lock();
+        try {
+            for (CustomerOrder order : savedOrders) {
+                JournalRecord record = new JournalRecord();
+                record.setType("ACK");
+                record.setRef(order.getIntakeReference());
+                record.setOrderId(order.getId());
+                // Not fsynced: a lost ACK is recovered through intake_reference on replay
+                appendLocked(record);
+                unfinished.remove(order.getIntakeReference());
+                statuses.put(order.getIntakeReference(), new IntakeStatusView(order.getIntakeReference(), CREATED, order.getId(), null));
+            }
+            compactIfLargeLocked();
+        } finally {
+            journalLock.unlock();
+        }
+        committed.addAndGet(savedOrders.size());
+    }
+
+    private void markFailed(String reference, String error) {
+        logger.warn("Queued order {} failed: {}", reference, error);
+        long line;
+        journalLock.lock();
+        try {
+            JournalRecord record = new JournalRecord();
+            record.setType("FAIL");
+            record.setRef(reference);
+            record.setError(error);
+            line = appendLocked(record);
+            unfinished.remove(reference);
+            statuses.put(reference, new IntakeStatusView(reference, FAILED, null, error));
+        } finally {
+            journalLock.unlock();
+        }
+        awaitDurable(line);
+        failed.incrementAndGet();
+    }
+
+    // Writes one line without forcing it to disk and returns its number, for awaitDurable
+    private long appendLocked(JournalRecord record) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(record);
+            ByteBuffer buffer = ByteBuffer.allocate(line.length + 1);
+            buffer.put(line).put((byte) '\n').flip();
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            return ++appendedLines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write order intake journal", e);
+        }
+    }
+
+    // Returns once the given line is on disk. The first caller in syncs everything appended so far,
+    // so callers queued behind it usually find their line already covered.
+    private void awaitDurable(long line) {
+        if (!fsync || syncedLines >= line) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedLines >= line) {
+                return;
+            }
+            long target = appendedLines;
+            journal.force(false);
+            syncedLines = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync order intake journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void compactIfLargeLocked() {
+        try {
+            if (journal.size() < journalCompactBytes) {
+                return;
+            }
+            List<Pending> pending = new ArrayList<>(unfinished.size());
+            unfinished.forEach((reference, order) -> pending.add(new Pending(reference, order)));
+            compact(Paths.get(journalPath), pending);
+        } catch (IOException e) {
+            logger.warn("Order intake journal compaction failed: {}", e.getMessage());
+        }
+    }
+
+    // Reads the journal and returns the orders that were enqueued but never finished
+    private List<Pending> recover(Path path) throws IOException {
+        Map<String, CustomerOrder> open = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JournalRecord record;
+                    try {
+                        record = objectMapper.readValue(line, JournalRecord.class);
+                    } catch (JsonProcessingException e) {
+                        // A torn last line from a crash mid-write; that order was never acknowledged to the client
+                        logger.warn("Skipping unreadable order intake journal line");
+                        continue;
+                    }
+                    if ("ENQ".equals(record.getType())) {
+                        record.getOrder().setIntakeReference(record.getRef());
+                        open.put(record.getRef(), record.getOrder());
+                    } else {
+                        open.remove(record.getRef());
+                    }
+                }
+            }
+        }
+
+        // Orders committed just before a crash, whose ACK never reached the journal
+        if (!open.isEmpty()) {
+            for (Object[] row : orderRepository.findIdsByIntakeReferences(open.keySet())) {
+                String reference = (String) row[0];
+                open.remove(reference);
+                statuses.put(reference, new IntakeStatusView(reference, CREATED, (Long) row[1], null));
+            }
+        }
+
+        List<Pending> recovered = new ArrayList<>(open.size());
+        open.forEach((reference, order) -> {
+            recovered.add(new Pending(reference, order));
+            unfinished.put(reference, order);
+            statuses.put(reference, new IntakeStatusView(reference, QUEUED, null, null));
+        });
+        return recovered;
+    }
+
+    // Rewrites the journal with only the given ENQ records and swaps it in atomically
+    private void compact(Path path, List<Pending> pending) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Pending entry : pending) {
+                JournalRecord record = new JournalRecord();
+                record.setType("ENQ");
+                record.setRef(entry.reference);
+                record.setOrder(entry.order);
+                byte[] line = objectMapper.writeValueAsBytes(record);
+                ByteBuffer buffer = ByteBuffer.allocate(line.length + 1);
+                buffer.put(line).put((byte) '\n').flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        syncLock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            // Every unfinished order is in the file just forced, so lines still waiting for a sync are covered
+            syncedLines = appendedLines;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        accepting = false;
+        running = false;
+        if (writer != null) {
+            // The in-flight batch finishes; anything still queued stays in the journal for the next start
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        journalLock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private static final class Pending {
+        private final String reference;
+        private final CustomerOrder order;
+
+        private Pending(String reference, CustomerOrder order) {
+            this.reference = reference;
+            this.order = order;
+        }
+    }
+
+    // One journal line. type is ENQ (order accepted), ACK (order written, with orderId) or FAIL (order rejected)
+    @Data
+    @NoArgsConstructor
+    static class JournalRecord {
+        private String type;
+        private String ref;
+        private CustomerOrder order;
+        private Long orderId;
+        private String error;
+    }
+}
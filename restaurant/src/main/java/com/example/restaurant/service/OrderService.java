@@ -1,16 +1,40 @@
 package com.example.restaurant.service;
 
+import com.example.restaurant.dto.OrderPage;
+import com.example.restaurant.dto.OrderStatusView;
+import com.example.restaurant.dto.OrderSummaryView;
+import com.example.restaurant.event.OrderEvent;
 import com.example.restaurant.model.CustomerOrder;
 import com.example.restaurant.model.MenuItem;
 import com.example.restaurant.model.OrderItem;
-import com.example.restaurant.repository.MenuItemRepository;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.OrderQueryRepository;
 import com.example.restaurant.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Service // <--- ENSURE THIS ANNOTATION IS PRESENT
@@ -20,55 +44,222 @@ public class OrderService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private OrderQueryRepository orderQueryRepository;
 
-    public List<CustomerOrder> getAllOrders() {
-        return orderRepository.findAll();
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${restaurant.app.orders.statusUpdateAttempts:3}")
+    private int statusUpdateAttempts;
+
+    private TransactionTemplate inTransaction;
+
+    // Status updates that found the order changed since they read it: retried, and given up after the last attempt
+    private final LongAdder statusConflicts = new LongAdder();
+    private final LongAdder statusConflictsExhausted = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        inTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    // Newest first, keyset-paginated on (orderTime, id); the cursor is opaque to clients
+    @Timed("restaurant.orders.list")
+    public OrderPage findOrders(String status, String customerName, LocalDateTime from, LocalDateTime to,
+                                String cursor, Integer limit) {
+        String statusFilter = status == null ? null : OrderStatus.fromValue(status).name();
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterTime = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            afterTime = LocalDateTime.parse(parts[0]);
+            afterId = Long.valueOf(parts[1]);
+        }
+
+        // Ask for one extra row to learn whether another page exists
+        List<OrderSummaryView> orders = orderQueryRepository.findPage(
+                statusFilter, customerName, from, to, afterTime, afterId, pageSize + 1);
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderSummaryView last = orders.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getOrderTime(), last.getId());
+        }
+        return new OrderPage(orders, nextCursor);
+    }
+
+    private static String encodeCursor(LocalDateTime orderTime, Long id) {
+        String raw = orderTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
     }
 
     public Optional<CustomerOrder> getOrderById(Long id) {
-        return orderRepository.findById(id);
+        return orderRepository.findWithItemsById(id);
     }
 
+    @Timed("restaurant.orders.create")
     @Transactional
     public CustomerOrder createOrder(CustomerOrder orderRequest) {
+        Map<Long, MenuItem> menuItems = orderRequest.getOrderItems() != null
+                ? resolveMenuItems(orderRequest.getOrderItems())
+                : Map.of();
+        CustomerOrder savedOrder = orderRepository.save(buildOrder(orderRequest, menuItems));
+        eventPublisher.publishEvent(OrderEvent.created(savedOrder));
+        return savedOrder;
+    }
+
+    /**
+     * Group commit: creates all orders in one transaction, resolving every referenced menu item
+     * with at most one query. Either all orders are written or none are.
+     */
+    @Timed("restaurant.orders.create.batch")
+    @Transactional
+    public List<CustomerOrder> createOrders(List<CustomerOrder> orderRequests) {
+        List<OrderItem> allItems = new ArrayList<>();
+        for (CustomerOrder orderRequest : orderRequests) {
+            if (orderRequest.getOrderItems() != null) {
+                allItems.addAll(orderRequest.getOrderItems());
+            }
+        }
+        Map<Long, MenuItem> menuItems = resolveMenuItems(allItems);
+
+        List<CustomerOrder> newOrders = new ArrayList<>(orderRequests.size());
+        for (CustomerOrder orderRequest : orderRequests) {
+            newOrders.add(buildOrder(orderRequest, menuItems));
+        }
+        List<CustomerOrder> savedOrders = orderRepository.saveAll(newOrders);
+        savedOrders.forEach(order -> eventPublisher.publishEvent(OrderEvent.created(order)));
+        return savedOrders;
+    }
+
+    private CustomerOrder buildOrder(CustomerOrder orderRequest, Map<Long, MenuItem> menuItems) {
         CustomerOrder newOrder = new CustomerOrder();
         newOrder.setCustomerName(orderRequest.getCustomerName());
+        newOrder.setIntakeReference(orderRequest.getIntakeReference());
         // orderTime and status are set by @PrePersist in CustomerOrder entity
 
         // Process order items from the request
         if (orderRequest.getOrderItems() != null) {
-            List<OrderItem> processedOrderItems = orderRequest.getOrderItems().stream().map(requestedItem -> {
-                if (requestedItem.getMenuItem() == null || requestedItem.getMenuItem().getId() == null) {
-                    throw new RuntimeException("MenuItem ID is required for each order item.");
-                }
-                MenuItem menuItem = menuItemRepository.findById(requestedItem.getMenuItem().getId())
-                        .orElseThrow(() -> new RuntimeException("Menu Item not found with ID: " + requestedItem.getMenuItem().getId()));
+            for (OrderItem requestedItem : orderRequest.getOrderItems()) {
+                MenuItem menuItem = menuItems.get(requestedItem.getMenuItem().getId());
 
                 OrderItem orderItem = new OrderItem();
                 orderItem.setMenuItem(menuItem);
                 orderItem.setQuantity(requestedItem.getQuantity());
                 orderItem.setUnitPrice(menuItem.getPrice()); // Capture price at time of order
-                // The 'newOrder.addOrderItem(orderItem)' will set the bidirectional link
-                return orderItem;
-            }).collect(Collectors.toList());
-
-            processedOrderItems.forEach(newOrder::addOrderItem); // Add items and set bidirectional link
+                newOrder.addOrderItem(orderItem); // Add item and set bidirectional link
+            }
         }
 
         newOrder.calculateTotalPrice();
-        return orderRepository.save(newOrder);
+        return newOrder;
     }
 
-    @Transactional
-    public CustomerOrder updateOrderStatus(Long id, String status) {
-        CustomerOrder order = orderRepository.findById(id)
+    // Resolves every referenced menu item and reports all unknown IDs at once. Items come from the
+    // second-level cache where present; the rest are loaded with a single query.
+    private Map<Long, MenuItem> resolveMenuItems(List<OrderItem> requestedItems) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (OrderItem requestedItem : requestedItems) {
+            if (requestedItem.getMenuItem() == null || requestedItem.getMenuItem().getId() == null) {
+                throw new RuntimeException("MenuItem ID is required for each order item.");
+            }
+            ids.add(requestedItem.getMenuItem().getId());
+        }
+
+        Map<Long, MenuItem> menuItems = new HashMap<>(ids.size() * 2);
+        // Unlike findAllById (a plain IN query), multiLoad checks the second-level cache first,
+        // but only when a cache mode is set explicitly
+        List<MenuItem> loaded = entityManager.unwrap(Session.class).byMultipleIds(MenuItem.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(new ArrayList<>(ids));
+        for (MenuItem menuItem : loaded) {
+            if (menuItem != null) {
+                menuItems.put(menuItem.getId(), menuItem);
+            }
+        }
+
+        if (menuItems.size() != ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !menuItems.containsKey(id)).collect(Collectors.toList());
+            throw new RuntimeException("Menu Item not found with ID(s): " + missing);
+        }
+        return menuItems;
+    }
+
+    /**
+     * Moves an order to a new status without loading the entity: reads the order's status and version,
+     * then writes with one UPDATE that only matches while the version is unchanged. If another request
+     * changed the order in between, the transition is checked again against the new status and retried,
+     * up to statusUpdateAttempts times. Each attempt runs in its own transaction so that it sees the
+     * other request's committed change (call this outside a transaction).
+     * Throws IllegalArgumentException for an unknown status, and IllegalStateException for a transition
+     * the order's current status does not allow or when every attempt conflicted.
+     */
+    @Timed("restaurant.orders.status.update")
+    public OrderStatusView updateOrderStatus(Long id, String status) {
+        OrderStatus target = OrderStatus.fromValue(status);
+        for (int attempt = 1; attempt <= statusUpdateAttempts; attempt++) {
+            OrderStatusView updated = inTransaction.execute(tx -> tryUpdateStatus(id, target));
+            if (updated != null) {
+                return updated;
+            }
+            // A conflict on the last attempt is not retried; it is counted as exhausted below
+            if (attempt < statusUpdateAttempts) {
+                statusConflicts.increment();
+            }
+        }
+        statusConflictsExhausted.increment();
+        throw new IllegalStateException("Order " + id + " was changed concurrently " + statusUpdateAttempts + " times, status not updated");
+    }
+
+    // Returns null if the order changed after it was read
+    private OrderStatusView tryUpdateStatus(Long id, OrderStatus target) {
+        OrderStatusView order = orderRepository.findStatusViewById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
-        order.setStatus(status);
-        return orderRepository.save(order);
+        OrderStatus previous = order.getStatus();
+        if (!previous.canTransitionTo(target)) {
+            throw new IllegalStateException("Order " + id + " cannot move from " + previous + " to " + target);
+        }
+        if (previous == target) {
+            return order;
+        }
+        if (orderRepository.updateStatusIfVersion(id, target, order.getVersion()) == 0) {
+            return null;
+        }
+        order.setStatus(target);
+        order.setVersion(order.getVersion() + 1);
+        eventPublisher.publishEvent(OrderEvent.statusChanged(order, previous));
+        return order;
+    }
+
+    public long getStatusConflictCount() {
+        return statusConflicts.sum();
     }
 
-    public List<CustomerOrder> findOrdersByStatus(String status) {
-        return orderRepository.findByStatus(status);
+    public long getStatusConflictsExhaustedCount() {
+        return statusConflictsExhausted.sum();
     }
-}
\ No newline at end of file
+}
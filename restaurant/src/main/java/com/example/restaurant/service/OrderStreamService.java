@@ -0,0 +1,282 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.event.OrderEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed order events to kitchen screens over Server-Sent Events.
+ * <p>
+ * Every event gets an id of the form {@code <epoch>-<sequence>} and is kept in a bounded replay buffer,
+ * so a screen that reconnects with Last-Event-ID receives what it missed. The epoch changes on every
+ * start; an id from an earlier epoch, or one that has left the buffer, gets a RESET event instead,
+ * telling the screen to reload from the REST API.
+ * <p>
+ * Each subscriber has its own bounded queue and at most one sender task at a time, including for
+ * heartbeats, run on a fixed pool of senderThreads. A client whose socket stops reading holds one sender
+ * until the container's write timeout (the connector's connection-timeout) fails the write, and is
+ * disconnected once it falls a full queue behind. At most maxSubscribers streams are open at once; further
+ * subscriptions are refused, so stalled clients cannot pile up without bound.
+ * <p>
+ * The endpoint needs {@code Authorization: Bearer}, which the browser's native EventSource cannot send.
+ * Screens use a fetch-based SSE client (fetch with a streaming body, e.g. @microsoft/fetch-event-source)
+ * that sets the header and sends Last-Event-ID on reconnect itself. Tokens are deliberately not
+ * accepted in the query string, where they would end up in access logs.
+ */
+@Service
+public class OrderStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStreamService.class);
+
+    @Value("${restaurant.app.orderStream.replaySize:1024}")
+    private int replaySize;
+
+    @Value("${restaurant.app.orderStream.subscriberQueueSize:256}")
+    private int subscriberQueueSize;
+
+    @Value("${restaurant.app.orderStream.timeoutMs:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${restaurant.app.orderStream.maxSubscribers:200}")
+    private int maxSubscribers;
+
+    @Value("${restaurant.app.orderStream.senderThreads:8}")
+    private int senderThreads;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<StreamEvent> replayBuffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastEventId;
+    // Per start, so ids handed out before a restart are never mistaken for current ones
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final LongAdder rejectedSubscriptions = new LongAdder();
+
+    // The queue holds at most one drain task per subscriber, so it is bounded by maxSubscribers
+    private ExecutorService senders;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("order-stream-heartbeat"));
+
+    @PostConstruct
+    public void init() {
+        senders = Executors.newFixedThreadPool(senderThreads, daemon("order-stream-sender"));
+        // Comment lines keep idle connections open through proxies and surface dead clients
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, 15, 15, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener
+    public void onOrderEvent(OrderEvent event) {
+        lock.lock();
+        try {
+            StreamEvent streamEvent = new StreamEvent(++lastEventId, event);
+            replayBuffer.addLast(streamEvent);
+            if (replayBuffer.size() > replaySize) {
+                replayBuffer.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(streamEvent);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Empty once maxSubscribers streams are open
+    public Optional<SseEmitter> subscribe(String lastEventIdHeader) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        lock.lock();
+        try {
+            // Subscribers are only added under the lock, so the count cannot overshoot
+            if (subscribers.size() >= maxSubscribers) {
+                rejectedSubscriptions.increment();
+                return Optional.empty();
+            }
+            if (lastEventIdHeader != null && !lastEventIdHeader.isBlank()) {
+                long resumeAfter = resumePoint(lastEventIdHeader);
+                StreamEvent oldest = replayBuffer.peekFirst();
+                if (resumeAfter < 0 || resumeAfter > lastEventId || (oldest != null && oldest.id > resumeAfter + 1)) {
+                    // From before a restart, or the gap is no longer in the buffer; the screen reloads from the REST API
+                    subscriber.enqueue(new StreamEvent(lastEventId, null));
+                } else {
+                    for (StreamEvent event : replayBuffer) {
+                        if (event.id > resumeAfter) {
+                            subscriber.enqueue(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return Optional.of(emitter);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getRejectedSubscriptionCount() {
+        return rejectedSubscriptions.sum();
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    // The sequence number of an id from this epoch, or -1 for any other id
+    private long resumePoint(String value) {
+        String id = value.trim();
+        int dash = id.indexOf('-');
+        if (dash < 0 || !id.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Iterator<Subscriber> it = subscribers.iterator(); it.hasNext(); ) {
+            it.next().emitter.complete();
+            it.remove();
+        }
+        senders.shutdown();
+    }
+
+    // Queued like an event so a subscriber never has more than one send in flight
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null);
+
+    // payload == null marks a "reset" event
+    private static final class StreamEvent {
+        private final long id;
+        private final OrderEvent payload;
+
+        private StreamEvent(long id, OrderEvent payload) {
+            this.id = id;
+            this.payload = payload;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.warn("Order stream subscriber fell {} events behind; disconnecting it", subscriberQueueSize);
+                close();
+                emitter.complete();
+                return;
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            senders.execute(() -> {
+                try {
+                    StreamEvent event;
+                    while (!closed && (event = queue.poll()) != null) {
+                        send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                } finally {
+                    draining.set(false);
+                }
+                // An event may have been queued between the last poll and releasing the flag
+                if (!closed && !queue.isEmpty()) {
+                    drain();
+                }
+            });
+        }
+
+        private void send(StreamEvent event) throws IOException {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return;
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().id(eventId(event.id));
+            if (event.payload == null) {
+                builder.name("RESET").data("{}", MediaType.APPLICATION_JSON);
+            } else {
+                builder.name(event.payload.getType().name()).data(event.payload, MediaType.APPLICATION_JSON);
+            }
+            emitter.send(builder);
+        }
+
+        // Only needed while idle; a subscriber with events queued is being written to anyway
+        private void heartbeat() {
+            if (closed || draining.get() || !queue.isEmpty()) {
+                return;
+            }
+            if (queue.offer(HEARTBEAT)) {
+                drain();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
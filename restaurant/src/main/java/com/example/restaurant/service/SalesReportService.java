@@ -0,0 +1,434 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.ItemSalesView;
+import com.example.restaurant.dto.SalesTotalsView;
+import com.example.restaurant.event.OrderEvent;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.HourlySales;
+import com.example.restaurant.model.ItemDailySales;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.HourlySalesRepository;
+import com.example.restaurant.repository.ItemDailySalesRepository;
+import com.example.restaurant.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sales reports that cost the same no matter how many orders are stored.
+ * <p>
+ * Every order creation and cancellation adds a delta to two summary tables: sales_hourly (one row per
+ * hour) and sales_item_daily (one row per menu item per day). Deltas are collected per transaction and
+ * written just before it commits, in the order's own transaction and connection, so the report always
+ * matches the committed orders and the hot hourly row is locked only briefly. Each row is written with
+ * one relative upsert (INSERT ... ON DUPLICATE KEY UPDATE) in key order, which also creates the first
+ * row of an hour or day.
+ * <p>
+ * Daily totals for the last {@code rollupDays} days are also kept in memory, updated after commit.
+ */
+@Service
+public class SalesReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesReportService.class);
+
+    private static final long REBUILD_CHUNK = 10_000;
+
+    // Relative upserts. VALUES(col) is the value the INSERT would have written, i.e. this delta.
+    private static final String ADD_HOURLY = "INSERT INTO sales_hourly "
+            + "(bucket_start, order_count, item_quantity, revenue_cents, cancelled_count) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "item_quantity = item_quantity + VALUES(item_quantity), revenue_cents = revenue_cents + VALUES(revenue_cents), "
+            + "cancelled_count = cancelled_count + VALUES(cancelled_count)";
+    private static final String ADD_ITEM_DAILY = "INSERT INTO sales_item_daily "
+            + "(sales_date, menu_item_id, order_count, quantity, revenue_cents) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "quantity = quantity + VALUES(quantity), revenue_cents = revenue_cents + VALUES(revenue_cents)";
+
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    // Fields of an hourly delta / in-memory day
+    private static final int ORDERS = 0;
+    private static final int QUANTITY = 1;
+    private static final int REVENUE = 2;
+    private static final int CANCELLED = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private HourlySalesRepository hourlySalesRepository;
+
+    @Autowired
+    private ItemDailySalesRepository itemDailySalesRepository;
+
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${restaurant.app.reports.rollupDays:35}")
+    private int rollupDays;
+
+    private final Map<LocalDate, AtomicLongArray> rollup = new ConcurrentHashMap<>();
+
+    private TransactionTemplate inTransaction;
+
+    @PostConstruct
+    public void init() {
+        inTransaction = new TransactionTemplate(transactionManager);
+        loadRollup();
+    }
+
+    // Runs inside the order transaction (events are published before commit)
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.getType() == OrderEvent.Type.CREATED) {
+            // Served from the persistence context of the same transaction, no extra query
+            orderRepository.findById(event.getOrderId()).ifPresent(this::recordCreated);
+        } else if (event.getPreviousStatus() == OrderStatus.UNKNOWN) {
+            // Orders with an unknown status were left out of the summaries; they enter them once resolved
+            SalesDelta delta = new SalesDelta();
+            if (event.getStatus() == OrderStatus.CANCELLED) {
+                delta.addCancelled(event.getOrderTime());
+            } else {
+                delta.addOrder(event.getOrderTime(), event.getTotalPrice(), lines(event.getOrderId()), 1);
+            }
+            record(delta);
+        } else if (event.getStatus() == OrderStatus.CANCELLED && event.getPreviousStatus() != OrderStatus.CANCELLED) {
+            SalesDelta delta = new SalesDelta();
+            delta.addOrder(event.getOrderTime(), event.getTotalPrice(), lines(event.getOrderId()), -1);
+            delta.addCancelled(event.getOrderTime());
+            record(delta);
+        }
+    }
+
+    // Status changes carry the order's time and total; its lines come from one projection query
+    private Map<Long, long[]> lines(Long orderId) {
+        Map<Long, long[]> lines = new HashMap<>();
+        for (Object[] row : orderRepository.findLinesById(orderId)) {
+            int quantity = (Integer) row[1];
+            long[] line = lines.computeIfAbsent((Long) row[0], k -> new long[2]);
+            line[0] += quantity;
+            line[1] += ((Money) row[2]).times(quantity).getCents();
+        }
+        return lines;
+    }
+
+    /** Counts a new order; called for orders created through OrderService and for imported ones. */
+    public void recordCreated(CustomerOrder order) {
+        SalesDelta delta = new SalesDelta();
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            delta.addCancelled(order.getOrderTime());
+        } else {
+            delta.addOrder(order);
+        }
+        record(delta);
+    }
+
+    private void record(SalesDelta delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inTransaction.executeWithoutResult(status -> write(delta));
+            applyToRollup(delta);
+            return;
+        }
+        SalesDelta pending = (SalesDelta) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            SalesDelta transactionDelta = new SalesDelta();
+            TransactionSynchronizationManager.bindResource(this, transactionDelta);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(transactionDelta);
+                }
+
+                @Override
+                public void afterCommit() {
+                    applyToRollup(transactionDelta);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SalesReportService.this);
+                }
+            });
+            pending = transactionDelta;
+        }
+        pending.merge(delta);
+    }
+
+    // One batch per table, keys in sorted order so two transactions never lock the same rows in opposite order
+    private void write(SalesDelta delta) {
+        List<Object[]> hours = new ArrayList<>(delta.hours.size());
+        delta.hours.forEach((hour, v) -> hours.add(new Object[]{hour, v[ORDERS], v[QUANTITY], v[REVENUE], v[CANCELLED]}));
+        List<Object[]> items = new ArrayList<>(delta.items.size());
+        delta.items.forEach((key, v) -> items.add(new Object[]{key.getSalesDate(), key.getMenuItemId(), v[ORDERS], v[QUANTITY], v[REVENUE]}));
+        if (!hours.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_HOURLY, hours);
+        }
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_ITEM_DAILY, items);
+        }
+    }
+
+    private void applyToRollup(SalesDelta delta) {
+        LocalDate oldest = LocalDate.now().minusDays(rollupDays - 1L);
+        delta.hours.forEach((hour, values) -> {
+            LocalDate day = hour.toLocalDate();
+            if (!day.isBefore(oldest)) {
+                AtomicLongArray totals = rollup.computeIfAbsent(day, d -> new AtomicLongArray(4));
+                for (int i = 0; i < values.length; i++) {
+                    totals.addAndGet(i, values[i]);
+                }
+            }
+        });
+        rollup.keySet().removeIf(day -> day.isBefore(oldest));
+    }
+
+    private void loadRollup() {
+        LocalDate oldest = LocalDate.now().minusDays(rollupDays - 1L);
+        rollup.clear();
+        for (HourlySales hour : hourlySalesRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                oldest.atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay())) {
+            AtomicLongArray totals = rollup.computeIfAbsent(hour.getBucketStart().toLocalDate(), d -> new AtomicLongArray(4));
+            totals.addAndGet(ORDERS, hour.getOrderCount());
+            totals.addAndGet(QUANTITY, hour.getItemQuantity());
+            totals.addAndGet(REVENUE, hour.getRevenueCents());
+            totals.addAndGet(CANCELLED, hour.getCancelledCount());
+        }
+    }
+
+    /** One entry per day in [from, to], oldest first; days without orders are reported as zero. */
+    public List<SalesTotalsView> dailyTotals(LocalDate from, LocalDate to) {
+        LocalDate oldestInMemory = LocalDate.now().minusDays(rollupDays - 1L);
+        Map<LocalDate, long[]> stored = new HashMap<>();
+        if (from.isBefore(oldestInMemory)) {
+            LocalDate storedTo = to.isBefore(oldestInMemory) ? to : oldestInMemory.minusDays(1);
+            for (HourlySales hour : hourlySalesRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                    from.atStartOfDay(), storedTo.plusDays(1).atStartOfDay())) {
+                long[] totals = stored.computeIfAbsent(hour.getBucketStart().toLocalDate(), d -> new long[4]);
+                totals[ORDERS] += hour.getOrderCount();
+                totals[QUANTITY] += hour.getItemQuantity();
+                totals[REVENUE] += hour.getRevenueCents();
+                totals[CANCELLED] += hour.getCancelledCount();
+            }
+        }
+
+        List<SalesTotalsView> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long[] totals;
+            if (day.isBefore(oldestInMemory)) {
+                totals = stored.getOrDefault(day, new long[4]);
+            } else {
+                AtomicLongArray live = rollup.get(day);
+                totals = new long[4];
+                if (live != null) {
+                    for (int i = 0; i < totals.length; i++) {
+                        totals[i] = live.get(i);
+                    }
+                }
+            }
+            days.add(new SalesTotalsView(day.toString(), totals[ORDERS], totals[QUANTITY],
+                    Money.ofCents(totals[REVENUE]), totals[CANCELLED]));
+        }
+        return days;
+    }
+
+    /** The hours of one day that had orders, in order. */
+    public List<SalesTotalsView> hourlyTotals(LocalDate date) {
+        List<SalesTotalsView> hours = new ArrayList<>();
+        for (HourlySales hour : hourlySalesRepository.findByBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            hours.add(new SalesTotalsView(hour.getBucketStart().format(HOUR_FORMAT), hour.getOrderCount(),
+                    hour.getItemQuantity(), Money.ofCents(hour.getRevenueCents()), hour.getCancelledCount()));
+        }
+        return hours;
+    }
+
+    /** Best-selling items by quantity over [from, to]. */
+    public List<ItemSalesView> topItems(LocalDate from, LocalDate to, int limit) {
+        MenuCatalog catalog = menuCatalogCache.get();
+        List<ItemSalesView> items = new ArrayList<>(limit);
+        for (Object[] row : itemDailySalesRepository.sumByItem(from, to, PageRequest.of(0, limit))) {
+            Long menuItemId = (Long) row[0];
+            MenuItem menuItem = catalog.getItem(menuItemId);
+            items.add(new ItemSalesView(menuItemId, menuItem != null ? menuItem.getName() : null,
+                    ((Number) row[1]).longValue(), ((Number) row[2]).longValue(), Money.ofCents(((Number) row[3]).longValue())));
+        }
+        return items;
+    }
+
+    /**
+     * Recomputes both summary tables from customer_orders, e.g. after the first deployment or a manual data fix.
+     * Streams the orders once; memory grows with the number of hours and item-days, not with the order count.
+     * Orders committed while this runs may be missed, so run it when the restaurant is closed.
+     */
+    public int rebuild() {
+        SalesDelta delta = new SalesDelta();
+        int orders = 0;
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM customer_orders", Long.class);
+        // Id ranges keep each read small without relying on driver-specific cursor settings
+        for (long after = 0; maxId != null && after < maxId; after += REBUILD_CHUNK) {
+            orders += jdbcTemplate.query("SELECT o.id, o.order_time, o.status, i.menu_item_id, i.quantity, i.unit_price_cents "
+                    + "FROM customer_orders o JOIN order_items i ON i.customer_order_id = o.id "
+                    + "WHERE o.id > ? AND o.id <= ? ORDER BY o.id", new RebuildReader(delta), after, after + REBUILD_CHUNK);
+        }
+
+        inTransaction.executeWithoutResult(status -> {
+            hourlySalesRepository.deleteAllInBatch();
+            itemDailySalesRepository.deleteAllInBatch();
+            List<HourlySales> hours = new ArrayList<>(delta.hours.size());
+            delta.hours.forEach((hour, v) -> hours.add(new HourlySales(hour, v[ORDERS], v[QUANTITY], v[REVENUE], v[CANCELLED])));
+            hourlySalesRepository.saveAll(hours);
+            List<ItemDailySales> items = new ArrayList<>(delta.items.size());
+            delta.items.forEach((key, v) -> items.add(
+                    new ItemDailySales(key.getSalesDate(), key.getMenuItemId(), v[ORDERS], v[QUANTITY], v[REVENUE])));
+            itemDailySalesRepository.saveAll(items);
+        });
+        loadRollup();
+        logger.info("Rebuilt sales summaries from {} orders ({} hours, {} item-days)", orders, delta.hours.size(), delta.items.size());
+        return orders;
+    }
+
+    // Folds the joined order/item rows of one id range into the delta, one order at a time; returns the order count
+    private static final class RebuildReader implements ResultSetExtractor<Integer> {
+        private final SalesDelta delta;
+
+        private RebuildReader(SalesDelta delta) {
+            this.delta = delta;
+        }
+
+        @Override
+        public Integer extractData(ResultSet rs) throws SQLException {
+            int orders = 0;
+            long orderId = -1;
+            LocalDateTime orderTime = null;
+            OrderStatus status = null;
+            Map<Long, long[]> lines = new HashMap<>();
+            while (rs.next()) {
+                if (rs.getLong(1) != orderId) {
+                    if (orderId != -1) {
+                        delta.addRow(orderTime, status, lines);
+                        orders++;
+                    }
+                    lines.clear();
+                    orderId = rs.getLong(1);
+                    orderTime = rs.getTimestamp(2).toLocalDateTime();
+                    status = OrderStatus.fromStoredValue(rs.getString(3));
+                }
+                long[] line = lines.computeIfAbsent(rs.getLong(4), k -> new long[2]);
+                line[0] += rs.getInt(5);
+                line[1] += rs.getInt(5) * rs.getLong(6);
+            }
+            if (orderId != -1) {
+                delta.addRow(orderTime, status, lines);
+                orders++;
+            }
+            return orders;
+        }
+    }
+
+    // Summary table changes, keyed in lock order: hour -> [orders, quantity, revenue, cancelled], (day, item) -> [orders, quantity, revenue]
+    private static final class SalesDelta {
+        private final TreeMap<LocalDateTime, long[]> hours = new TreeMap<>();
+        private final TreeMap<ItemDailySales.Key, long[]> items = new TreeMap<>(
+                Comparator.comparing(ItemDailySales.Key::getSalesDate).thenComparing(ItemDailySales.Key::getMenuItemId));
+
+        private void addOrder(CustomerOrder order) {
+            Map<Long, long[]> lines = new HashMap<>();
+            for (OrderItem item : order.getOrderItems()) {
+                long[] line = lines.computeIfAbsent(item.getMenuItem().getId(), k -> new long[2]);
+                line[0] += item.getQuantity();
+                line[1] += item.getUnitPrice().times(item.getQuantity()).getCents();
+            }
+            addOrder(order.getOrderTime(), order.getTotalPrice(), lines, 1);
+        }
+
+        // lines: menu item id -> [quantity, revenue cents]
+        private void addOrder(LocalDateTime orderTime, Money totalPrice, Map<Long, long[]> lines, int sign) {
+            long[] hour = hours.computeIfAbsent(hourOf(orderTime), k -> new long[4]);
+            hour[ORDERS] += sign;
+            hour[REVENUE] += sign * totalPrice.getCents();
+            addLines(orderTime, lines, sign, hour);
+        }
+
+        private void addCancelled(LocalDateTime orderTime) {
+            hours.computeIfAbsent(hourOf(orderTime), k -> new long[4])[CANCELLED]++;
+        }
+
+        // Used by rebuild, where only the joined rows are at hand
+        private void addRow(LocalDateTime orderTime, OrderStatus status, Map<Long, long[]> lines) {
+            if (!status.isKnown()) {
+                return;
+            }
+            long[] hour = hours.computeIfAbsent(hourOf(orderTime), k -> new long[4]);
+            if (status == OrderStatus.CANCELLED) {
+                hour[CANCELLED]++;
+                return;
+            }
+            hour[ORDERS]++;
+            for (long[] line : lines.values()) {
+                hour[REVENUE] += line[1];
+            }
+            addLines(orderTime, lines, 1, hour);
+        }
+
+        private void addLines(LocalDateTime orderTime, Map<Long, long[]> lines, int sign, long[] hour) {
+            LocalDate day = orderTime.toLocalDate();
+            lines.forEach((menuItemId, line) -> {
+                hour[QUANTITY] += sign * line[0];
+                long[] item = items.computeIfAbsent(new ItemDailySales.Key(day, menuItemId), k -> new long[3]);
+                item[ORDERS] += sign;
+                item[QUANTITY] += sign * line[0];
+                item[REVENUE] += sign * line[1];
+            });
+        }
+
+        private void merge(SalesDelta other) {
+            other.hours.forEach((key, values) -> add(hours.computeIfAbsent(key, k -> new long[4]), values));
+            other.items.forEach((key, values) -> add(items.computeIfAbsent(key, k -> new long[3]), values));
+        }
+
+        private static void add(long[] target, long[] values) {
+            for (int i = 0; i < values.length; i++) {
+                target[i] += values[i];
+            }
+        }
+
+        private static LocalDateTime hourOf(LocalDateTime orderTime) {
+            return orderTime.truncatedTo(ChronoUnit.HOURS);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.restaurant.config;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Id blocks are fetched while every application connection is held by a transaction waiting for an id.
+ * With a single-connection pool the fetch could only succeed on a connection of its own.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idblocks;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=-1"})
+class IdBlockGeneratorTests {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void blocksAreFetchedWhileTheOnlyConnectionIsHeld() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<Long>>> transactions = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                transactions.add(() -> transactionTemplate.execute(status -> {
+                    // Take the connection before the first id is needed
+                    jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < 120; i++) {
+                        CustomerOrder order = new CustomerOrder();
+                        order.setCustomerName("Blocks");
+                        ids.add(orderRepository.save(order).getId());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> result : threads.invokeAll(transactions)) {
+                ids.addAll(result.get());
+            }
+
+            assertThat(ids).hasSize(480);
+            Long nextVal = jdbcTemplate.queryForObject(
+                    "SELECT next_val FROM id_generators WHERE sequence_name = 'customer_orders'", Long.class);
+            assertThat(ids).allMatch(id -> id < nextVal);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
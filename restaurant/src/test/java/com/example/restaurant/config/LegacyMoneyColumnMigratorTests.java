@@ -0,0 +1,73 @@
+package com.example.restaurant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LegacyMoneyColumnMigratorTests {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:moneymigration;MODE=MySQL", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // The old schema with the new column added by Hibernate's update; the other tables are already migrated
+        jdbcTemplate.execute("CREATE TABLE menu_items (id BIGINT PRIMARY KEY, price DOUBLE NOT NULL, price_cents BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, unit_price_cents BIGINT)");
+        jdbcTemplate.update("INSERT INTO menu_items (id, price) VALUES (1, 12.99), (2, 0.1), (3, 4.5)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Test
+    void copiesCentsAndKeepsTheOldColumnByDefault() throws Exception {
+        migrator(false).afterPropertiesSet();
+
+        assertThat(cents()).containsExactly(1299L, 10L, 450L);
+        assertThat(columns("MENU_ITEMS")).contains("PRICE");
+        // New rows no longer mention the old column
+        jdbcTemplate.update("INSERT INTO menu_items (id, price_cents) VALUES (4, 250)");
+
+        // Running again on every start changes nothing
+        migrator(false).afterPropertiesSet();
+        assertThat(cents()).containsExactly(1299L, 10L, 450L, 250L);
+    }
+
+    @Test
+    void dropsTheOldColumnOnlyWhenAskedTo() throws Exception {
+        migrator(true).afterPropertiesSet();
+
+        assertThat(cents()).containsExactly(1299L, 10L, 450L);
+        assertThat(columns("MENU_ITEMS")).doesNotContain("PRICE");
+    }
+
+    private LegacyMoneyColumnMigrator migrator(boolean drop) {
+        LegacyMoneyColumnMigrator migrator = new LegacyMoneyColumnMigrator();
+        ReflectionTestUtils.setField(migrator, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(migrator, "dataSource", dataSource);
+        ReflectionTestUtils.setField(migrator, "dropLegacyColumns", drop);
+        return migrator;
+    }
+
+    private List<Long> cents() {
+        return jdbcTemplate.queryForList("SELECT price_cents FROM menu_items ORDER BY id", Long.class);
+    }
+
+    private List<String> columns(String table) {
+        return jdbcTemplate.queryForList("SELECT column_name FROM information_schema.columns WHERE table_name = ?",
+                String.class, table);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.restaurant.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LegacyOrderStatusMigratorTests {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:statusmigration;MODE=MySQL", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE customer_orders (id BIGINT PRIMARY KEY, status VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO customer_orders (id, status) VALUES "
+                + "(1, 'PENDING'), (2, 'ready'), (3, ' Cancelled '), (4, 'delivered'), (5, 'delivered'), (6, 'UNKNOWN')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Test
+    void normalizesCaseAndLeavesUnknownValuesAsTheyAre() {
+        migrator().afterPropertiesSet();
+
+        assertThat(statuses()).containsExactly("PENDING", "READY", "CANCELLED", "delivered", "delivered", "UNKNOWN");
+
+        // Running again on every start changes nothing
+        migrator().afterPropertiesSet();
+        assertThat(statuses()).containsExactly("PENDING", "READY", "CANCELLED", "delivered", "delivered", "UNKNOWN");
+    }
+
+    private LegacyOrderStatusMigrator migrator() {
+        LegacyOrderStatusMigrator migrator = new LegacyOrderStatusMigrator();
+        ReflectionTestUtils.setField(migrator, "jdbcTemplate", jdbcTemplate);
+        return migrator;
+    }
+
+    private List<String> statuses() {
+        return jdbcTemplate.queryForList("SELECT status FROM customer_orders ORDER BY id", String.class);
+    }
+}
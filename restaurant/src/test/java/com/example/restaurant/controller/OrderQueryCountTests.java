@@ -0,0 +1,267 @@
+package com.example.restaurant.controller;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.MenuItemRepository;
+import com.example.restaurant.repository.OrderRepository;
+import com.example.restaurant.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements per order endpoint, counted at the DataSource (so JPA and JdbcTemplate alike), to keep
+ * N+1 selects out: the count must not grow with the number of order lines or orders.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=-1",
+        "restaurant.app.rateLimit.enabled=false"})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class OrderQueryCountTests {
+
+    private static final int MENU_SIZE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    private final List<Long> menuItemIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedMenu() {
+        menuItemIds.clear();
+        for (int i = 0; i < MENU_SIZE; i++) {
+            MenuItem item = new MenuItem();
+            item.setName("Dish " + i);
+            item.setCategory("Mains");
+            item.setPrice(Money.ofCents(500 + i));
+            menuItemIds.add(menuItemRepository.save(item).getId());
+        }
+        // First order allocates the id blocks, so later counts do not include the id table
+        createOrder(1);
+    }
+
+    @Test
+    void receiptLoadsOrderItemsAndMenuItemsInOneQuery() throws Exception {
+        Long small = createOrder(1).getId();
+        Long large = createOrder(MENU_SIZE).getId();
+
+        List<String> smallSql = StatementCounter.record(() -> mockMvc.perform(get("/api/orders/" + small))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderItems[0].menuItem.name").value("Dish 0")));
+        List<String> largeSql = StatementCounter.record(() -> mockMvc.perform(get("/api/orders/" + large))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderItems.length()").value(MENU_SIZE)));
+
+        assertThat(smallSql).hasSize(1);
+        assertThat(largeSql).hasSize(1);
+    }
+
+    @Test
+    void statusUpdateDoesNotLoadOrderItems() throws Exception {
+        Long id = createOrder(MENU_SIZE).getId();
+
+        List<String> sql = StatementCounter.record(() -> mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PREPARING\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PREPARING")));
+
+        // Select the order, update its status
+        assertThat(sql).hasSize(2);
+        assertThat(sql).noneMatch(statement -> statement.contains("order_items") || statement.contains("menu_items"));
+    }
+
+    @Test
+    void cancellationReadsTheOrderLinesInOneQuery() throws Exception {
+        Long small = createOrder(1).getId();
+        Long large = createOrder(MENU_SIZE).getId();
+
+        List<String> smallSql = orderStatements(StatementCounter.record(() -> cancel(small)));
+        List<String> largeSql = orderStatements(StatementCounter.record(() -> cancel(large)));
+
+        // Select the order, update its status, one projection of its lines for the sales summaries
+        assertThat(smallSql).hasSize(3);
+        assertThat(largeSql).hasSameSizeAs(smallSql);
+        assertThat(largeSql).noneMatch(statement -> statement.contains("menu_items"));
+    }
+
+    @Test
+    void createOrderStatementsDoNotGrowWithLines() throws Exception {
+        List<String> oneLine = orderStatements(StatementCounter.record(() -> postOrder(1)));
+        List<String> manyLines = orderStatements(StatementCounter.record(() -> postOrder(MENU_SIZE)));
+
+        // Order insert and batched item insert; the menu items come from the second-level cache
+        assertThat(oneLine).hasSize(2);
+        assertThat(manyLines).hasSameSizeAs(oneLine);
+        assertThat(manyLines).noneMatch(statement -> statement.contains("from menu_items"));
+    }
+
+    @Test
+    void kitchenViewLoadsOpenOrdersInOneQuery() throws Exception {
+        createOrder(2);
+        createOrder(MENU_SIZE);
+
+        List<String> names = new ArrayList<>();
+        List<String> sql = StatementCounter.record(() -> {
+            for (CustomerOrder order : orderRepository.findByStatus(OrderStatus.PENDING)) {
+                order.getOrderItems().forEach(item -> names.add(item.getMenuItem().getName()));
+            }
+            return null;
+        });
+
+        assertThat(names).contains("Dish 0", "Dish " + (MENU_SIZE - 1));
+        assertThat(sql).hasSize(1);
+    }
+
+    // Sales summaries keep one counter row per menu item and day (SalesReportService), so those writes scale with distinct items by design
+    private static List<String> orderStatements(List<String> statements) {
+        return statements.stream().filter(statement -> !statement.contains("sales_")).toList();
+    }
+
+    private Object cancel(Long id) throws Exception {
+        return mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CANCELLED\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private CustomerOrder createOrder(int lines) {
+        return orderService.createOrder(orderRequest(lines));
+    }
+
+    private Object postOrder(int lines) throws Exception {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            items.append(i == 0 ? "" : ",")
+                    .append("{\"menuItem\":{\"id\":").append(menuItemIds.get(i)).append("},\"quantity\":2}");
+        }
+        return mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Counter\",\"orderItems\":[" + items + "]}"))
+                .andExpect(status().isCreated());
+    }
+
+    private CustomerOrder orderRequest(int lines) {
+        CustomerOrder order = new CustomerOrder();
+        order.setCustomerName("Counter");
+        for (int i = 0; i < lines; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId(menuItemIds.get(i));
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            item.setQuantity(1);
+            order.addOrderItem(item);
+        }
+        return order;
+    }
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof StatementCounter)
+                            ? new StatementCounter(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Records the SQL of every statement prepared on the calling thread while {@link #record} runs.
+     * A JDBC batch counts once, as it is one round trip.
+     */
+    static class StatementCounter extends DelegatingDataSource {
+
+        private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+        StatementCounter(DataSource target) {
+            super(target);
+        }
+
+        static List<String> record(Callable<?> work) throws Exception {
+            List<String> statements = new ArrayList<>();
+            RECORDING.set(statements);
+            try {
+                work.call();
+            } finally {
+                RECORDING.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        List<String> statements = RECORDING.get();
+                        if (statements != null && method.getName().startsWith("prepare")) {
+                            statements.add(String.valueOf(args[0]).toLowerCase());
+                        } else if (statements != null && method.getName().equals("createStatement")) {
+                            statements.add("<statement>");
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
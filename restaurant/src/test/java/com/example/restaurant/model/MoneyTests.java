@@ -0,0 +1,56 @@
+package com.example.restaurant.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+    @Test
+    void roundsHalfUpToTheCent() {
+        assertThat(Money.of("12.344").getCents()).isEqualTo(1234);
+        assertThat(Money.of("12.345").getCents()).isEqualTo(1235);
+        assertThat(Money.of("0.005").getCents()).isEqualTo(1);
+        assertThat(Money.of("0.0049").getCents()).isZero();
+        // Half-up rounds away from zero for negative amounts too
+        assertThat(Money.of("-0.005").getCents()).isEqualTo(-1);
+    }
+
+    @Test
+    void decimalsThatDoublesCannotRepresentStayExact() {
+        // 0.1 + 0.2 != 0.3 in double arithmetic
+        assertThat(Money.of("0.10").plus(Money.of("0.20"))).isEqualTo(Money.of("0.30"));
+        assertThat(Money.of("19.99").times(3)).isEqualTo(Money.of("59.97"));
+        assertThat(Money.of("5.00").minus(Money.of("5.01")).getCents()).isEqualTo(-1);
+    }
+
+    @Test
+    void arithmeticOverflowFailsInsteadOfWrapping() {
+        Money large = Money.ofCents(Long.MAX_VALUE / 2 + 1);
+        assertThatThrownBy(() -> large.plus(large)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> large.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void jsonKeepsTheDecimalForm() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertThat(objectMapper.writeValueAsString(Money.ofCents(1299))).isEqualTo("12.99");
+        assertThat(objectMapper.writeValueAsString(Money.ofCents(500))).isEqualTo("5.00");
+        assertThat(objectMapper.readValue("12.999", Money.class)).isEqualTo(Money.ofCents(1300));
+        assertThat(objectMapper.readValue("7", Money.class)).isEqualTo(Money.ofCents(700));
+    }
+
+    @Test
+    void equalityAndOrderingFollowTheAmount() {
+        assertThat(Money.ofCents(0)).isSameAs(Money.ZERO);
+        assertThat(Money.of("1.50")).isEqualTo(Money.ofCents(150)).hasSameHashCodeAs(Money.ofCents(150));
+        assertThat(Money.ofCents(149)).isLessThan(Money.ofCents(150));
+        assertThat(Money.ofCents(150).toString()).isEqualTo("1.50");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.restaurant.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatusTests {
+
+    private final OrderStatusConverter converter = new OrderStatusConverter();
+
+    @Test
+    void statusTransitionsFollowLifecycle() {
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.PREPARING)).isTrue();
+        assertThat(OrderStatus.READY.canTransitionTo(OrderStatus.CANCELLED)).isFalse();
+        assertThat(OrderStatus.COMPLETED.canTransitionTo(OrderStatus.PENDING)).isFalse();
+        assertThat(OrderStatus.fromValue(" preparing ")).isEqualTo(OrderStatus.PREPARING);
+    }
+
+    @Test
+    void requestsWithUnknownStatusesAreStillRejected() {
+        assertThatThrownBy(() -> OrderStatus.fromValue("delivered"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("delivered");
+        assertThatThrownBy(() -> OrderStatus.fromValue(" ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderStatus.fromValue("unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void storedValuesAreReadLeniently() {
+        assertThat(converter.convertToEntityAttribute("ready")).isEqualTo(OrderStatus.READY);
+        assertThat(converter.convertToEntityAttribute(" Cancelled ")).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void unknownStoredValuesReadAsUnknown() {
+        assertThat(converter.convertToEntityAttribute("delivered")).isEqualTo(OrderStatus.UNKNOWN);
+        assertThat(converter.convertToEntityAttribute("")).isEqualTo(OrderStatus.UNKNOWN);
+        assertThat(OrderStatus.UNKNOWN.isKnown()).isFalse();
+        // Not terminal: staff can move such an order to any real status
+        assertThat(OrderStatus.UNKNOWN.allowedTransitions())
+                .containsExactlyInAnyOrder(OrderStatus.PENDING, OrderStatus.PREPARING, OrderStatus.READY,
+                        OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void writesTheEnumName() {
+        assertThat(converter.convertToDatabaseColumn(OrderStatus.PREPARING)).isEqualTo("PREPARING");
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+    }
+}
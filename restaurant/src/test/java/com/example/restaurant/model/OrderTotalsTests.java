@@ -0,0 +1,87 @@
+package com.example.restaurant.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderTotalsTests {
+
+    @Test
+    void sumsQuantityTimesUnitPrice() {
+        List<OrderItem> items = List.of(line("4.99", 2), line("12.50", 1), line("0.10", 3));
+
+        assertThat(OrderTotals.subtotalCents(items)).isEqualTo(2 * 499 + 1250 + 3 * 10);
+    }
+
+    @Test
+    void emptyOrderAndUnpricedLinesCountAsZero() {
+        assertThat(OrderTotals.subtotalCents(List.of())).isZero();
+        assertThat(OrderTotals.subtotalCents(List.of(line(null, 5), line("1.00", 1)))).isEqualTo(100);
+    }
+
+    @Test
+    void calculateTotalPriceUsesTheCentsSubtotal() {
+        CustomerOrder order = new CustomerOrder();
+        order.addOrderItem(line("0.10", 1));
+        order.addOrderItem(line("0.20", 1));
+
+        order.calculateTotalPrice();
+
+        assertThat(order.getTotalPrice()).isEqualTo(Money.of("0.30"));
+    }
+
+    @Test
+    void taxLinesApplyToTheDiscountedSubtotal() {
+        // 20.00 subtotal, 2.50 off, then 6% and 2.25% on 17.50
+        OrderTotals totals = OrderTotals.compute(List.of(line("5.00", 4)), 250, 600, 225);
+
+        assertThat(totals.getSubtotal()).isEqualTo(Money.of("20.00"));
+        assertThat(totals.getDiscount()).isEqualTo(Money.of("2.50"));
+        // 1.05 + 0.39375 rounded per line to 0.39
+        assertThat(totals.getTax()).isEqualTo(Money.of("1.44"));
+        assertThat(totals.getTotal()).isEqualTo(Money.of("18.94"));
+        assertThat(totals.getTotalCents()).isEqualTo(1894);
+    }
+
+    @Test
+    void eachTaxLineRoundsHalfUpToTheCent() {
+        // 0.10 at 5% is 0.005 -> 0.01; at 4.99% it is 0.00499 -> 0.00
+        assertThat(OrderTotals.compute(List.of(line("0.10", 1)), 0, 500).getTax()).isEqualTo(Money.of("0.01"));
+        assertThat(OrderTotals.compute(List.of(line("0.10", 1)), 0, 499).getTax()).isEqualTo(Money.ZERO);
+        // Two lines are rounded separately, not summed first
+        assertThat(OrderTotals.compute(List.of(line("0.10", 1)), 0, 500, 500).getTax()).isEqualTo(Money.of("0.02"));
+    }
+
+    @Test
+    void discountIsCappedAndTaxIsOptional() {
+        List<OrderItem> items = List.of(line("3.00", 1));
+
+        OrderTotals overDiscounted = OrderTotals.compute(items, 1_000, 800);
+        assertThat(overDiscounted.getDiscount()).isEqualTo(Money.of("3.00"));
+        assertThat(overDiscounted.getTax()).isEqualTo(Money.ZERO);
+        assertThat(overDiscounted.getTotal()).isEqualTo(Money.ZERO);
+
+        assertThat(OrderTotals.compute(items, -50).getTotal()).isEqualTo(Money.of("3.00"));
+        assertThat(OrderTotals.compute(items, 0, (int[]) null).getTotal()).isEqualTo(Money.of("3.00"));
+        assertThatThrownBy(() -> OrderTotals.compute(items, 0, -100)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void overflowFailsInsteadOfWrapping() {
+        OrderItem huge = new OrderItem();
+        huge.setUnitPrice(Money.ofCents(Long.MAX_VALUE / 2));
+        huge.setQuantity(3);
+
+        assertThatThrownBy(() -> OrderTotals.subtotalCents(List.of(huge))).isInstanceOf(ArithmeticException.class);
+    }
+
+    private static OrderItem line(String unitPrice, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setUnitPrice(unitPrice == null ? null : Money.of(unitPrice));
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.restaurant.repository;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrderRepositoryTests {
+
+    private static final int ORDER_COUNT = 20_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedOrders() {
+        OrderStatus[] statuses = Arrays.stream(OrderStatus.values()).filter(OrderStatus::isKnown).toArray(OrderStatus[]::new);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 11, 0);
+        List<Object[]> rows = new ArrayList<>(ORDER_COUNT);
+        for (int i = 1; i <= ORDER_COUNT; i++) {
+            // Mostly finished orders, as in a real history; only every 100th order is still pending
+            OrderStatus status = i % 100 == 0 ? OrderStatus.PENDING : statuses[1 + i % (statuses.length - 1)];
+            rows.add(new Object[]{i, "customer-" + (i % 500), Timestamp.valueOf(start.plusMinutes(i)), 1000L, status.name()});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO customer_orders (id, customer_name, order_time, total_price_cents, status) VALUES (?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    @Test
+    void findByStatusUsesStatusIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM customer_orders WHERE status = 'PENDING' ORDER BY order_time", String.class);
+        assertThat(plan).containsIgnoringCase("idx_orders_status_time");
+
+        long start = System.nanoTime();
+        List<CustomerOrder> pending = orderRepository.findByStatus(OrderStatus.PENDING);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(pending).hasSize(ORDER_COUNT / 100);
+        assertThat(pending).allMatch(order -> order.getStatus() == OrderStatus.PENDING);
+        // Generous bound: an index range scan over 200 rows, not a scan of the whole table
+        assertThat(elapsedMs).isLessThan(2_000);
+    }
+
+    @Test
+    void findByCustomerNameUsesCustomerIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM customer_orders WHERE customer_name = 'customer-7' ORDER BY order_time", String.class);
+        assertThat(plan).containsIgnoringCase("idx_orders_customer_time");
+
+        assertThat(orderRepository.findByCustomerName("customer-7")).hasSize(ORDER_COUNT / 500);
+    }
+
+    @Test
+    void unknownStoredStatusDoesNotFailReads() {
+        jdbcTemplate.update("INSERT INTO customer_orders (id, customer_name, order_time, total_price_cents, status) VALUES (?, ?, ?, ?, ?)",
+                ORDER_COUNT + 1, "legacy", Timestamp.valueOf(LocalDateTime.of(2019, 5, 1, 12, 0)), 500L, "delivered");
+
+        assertThat(orderRepository.findByCustomerName("legacy"))
+                .extracting(CustomerOrder::getStatus).containsExactly(OrderStatus.UNKNOWN);
+        // The row keeps its original text until it is migrated
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM customer_orders WHERE id = ?", String.class, ORDER_COUNT + 1))
+                .isEqualTo("delivered");
+    }
+}
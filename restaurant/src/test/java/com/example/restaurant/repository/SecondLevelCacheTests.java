@@ -0,0 +1,126 @@
+package com.example.restaurant.repository;
+
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.ERole;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.model.Role;
+import com.example.restaurant.model.User;
+import com.example.restaurant.security.services.UserDetailsServiceImpl;
+import com.example.restaurant.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level and query cache hits, read from Hibernate's statistics, for the reads the caches are there for:
+ * menu items resolved while pricing an order, menu category queries, and a user's roles on every authentication.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:secondlevelcache;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=-1"})
+class SecondLevelCacheTests {
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void orderPricingReadsMenuItemsFromTheCache() {
+        MenuItem dish = menuItem("Cache soup", "Soups");
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            CustomerOrder order = new CustomerOrder();
+            order.setCustomerName("Cache");
+            MenuItem reference = new MenuItem();
+            reference.setId(dish.getId());
+            OrderItem item = new OrderItem();
+            item.setMenuItem(reference);
+            item.setQuantity(1);
+            order.addOrderItem(item);
+            orderService.createOrder(order);
+        }
+
+        assertThat(statistics.getDomainDataRegionStatistics("menuItems").getHitCount()).isEqualTo(3);
+        assertThat(statistics.getEntityStatistics(MenuItem.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void categoryQueryIsServedFromTheQueryCache() {
+        menuItem("Cache salad", "Salads");
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(menuItemRepository.findByCategory("Salads")).hasSize(1);
+        }
+
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void authenticationReadsRolesFromTheCache() {
+        Role admin = roleRepository.findByName(ERole.ROLE_ADMIN).orElseGet(() -> roleRepository.save(new Role(ERole.ROLE_ADMIN)));
+        User user = new User("cached", "cached@example.com", "{noop}secret");
+        user.getRoles().add(admin);
+        userRepository.save(user);
+        // First reads fill the collection, role and query regions
+        userDetailsService.loadUserByUsername("cached");
+        roleRepository.findByName(ERole.ROLE_ADMIN);
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(userDetailsService.loadUserByUsername("cached").getAuthorities())
+                    .extracting(Object::toString).containsExactly("ROLE_ADMIN");
+            assertThat(roleRepository.findByName(ERole.ROLE_ADMIN)).isPresent();
+        }
+
+        assertThat(statistics.getDomainDataRegionStatistics("userRoles").getHitCount()).isEqualTo(3);
+        assertThat(statistics.getDomainDataRegionStatistics("roles").getHitCount()).isGreaterThanOrEqualTo(3);
+        assertThat(statistics.getDomainDataRegionStatistics("userRoles").getMissCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(3);
+    }
+
+    private MenuItem menuItem(String name, String category) {
+        MenuItem item = new MenuItem();
+        item.setName(name);
+        item.setCategory(category);
+        item.setPrice(Money.ofCents(650));
+        return menuItemRepository.save(item);
+    }
+}
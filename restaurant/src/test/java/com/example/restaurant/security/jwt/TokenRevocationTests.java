@@ -0,0 +1,94 @@
+package com.example.restaurant.security.jwt;
+
+import com.example.restaurant.model.User;
+import com.example.restaurant.repository.UserRepository;
+import com.example.restaurant.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revocation marks outlive the instance that set them, and a cached token is checked against them on every hit.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tokenrevocation;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=-1"})
+class TokenRevocationTests {
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
+    @Autowired
+    private AuthTokenFilter authTokenFilter;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void marksAreStoredAndReadByAFreshInstance() {
+        userRepository.save(new User("revoked", "revoked@example.com", "{noop}secret"));
+        Date before = new Date(System.currentTimeMillis() - 5_000);
+        revocationRegistry.revokeAllTokens("revoked");
+
+        assertThat(userRepository.findTokensNotBefore("revoked")).isPresent();
+
+        // A restarted or second instance starts with no marks in memory
+        TokenRevocationRegistry other = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(other, "userRepository", userRepository);
+        ReflectionTestUtils.setField(other, "authenticationCache", authenticationCache);
+        ReflectionTestUtils.setField(other, "checkIntervalMs", 60_000L);
+        assertThat(other.isRevoked("revoked", before)).isTrue();
+        assertThat(other.isRevoked("revoked", new Date(System.currentTimeMillis() + 5_000))).isFalse();
+        assertThat(other.isRevoked("someone-else", before)).isFalse();
+    }
+
+    @Test
+    void aTokenCachedAfterItsRevocationIsStillRefused() throws Exception {
+        UserDetailsImpl principal = UserDetailsImpl.build(userRepository.save(new User("cachedhit", "cachedhit@example.com", "{noop}secret")));
+        String token = jwtUtils.generateTokenFromUsername("cachedhit");
+        Date issuedAt = jwtUtils.getAllClaimsFromToken(token).getIssuedAt();
+        assertThat(authenticate(token)).isNotNull();
+
+        revocationRegistry.revokeAllTokens("cachedhit");
+        // A request that passed the check before the revocation puts its entry back afterwards
+        authenticationCache.put(token, principal, issuedAt, new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(authenticate(token)).isNull();
+        assertThat(authenticationCache.get(token)).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
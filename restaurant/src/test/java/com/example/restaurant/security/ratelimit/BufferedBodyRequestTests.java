@@ -0,0 +1,133 @@
+package com.example.restaurant.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BufferedBodyRequestTests {
+
+    @Test
+    void blockingReadsReplayTheBufferedBytesThenTheRest() throws IOException {
+        BufferedBodyRequest request = new BufferedBodyRequest(request("0123456789"), 4);
+
+        assertThat(request.getBody()).isNull();
+        assertThat(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("0123456789");
+        assertThat(request.getInputStream().isFinished()).isTrue();
+    }
+
+    @Test
+    void aFullyBufferedBodyIsDeliveredToTheReadListener() throws IOException {
+        BufferedBodyRequest request = new BufferedBodyRequest(request("{\"username\":\"a\"}"), 64);
+        ServletInputStream in = request.getInputStream();
+        RecordingListener listener = new RecordingListener(in);
+
+        in.setReadListener(listener);
+
+        assertThat(listener.body()).isEqualTo("{\"username\":\"a\"}");
+        assertThat(listener.allDataRead).isTrue();
+        assertThat(listener.error).isNull();
+    }
+
+    @Test
+    void aLongerBodyIsReadThroughTheOriginalStreamsListener() throws IOException {
+        ListenableInputStream original = new ListenableInputStream("0123456789");
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest() {
+            @Override
+            public ServletInputStream getInputStream() {
+                return original;
+            }
+        };
+        BufferedBodyRequest request = new BufferedBodyRequest(servletRequest, 4);
+        ServletInputStream in = request.getInputStream();
+        RecordingListener listener = new RecordingListener(in);
+
+        in.setReadListener(listener);
+        // What the container does as the rest of the body arrives
+        original.listener.onDataAvailable();
+        original.listener.onAllDataRead();
+
+        assertThat(listener.body()).isEqualTo("0123456789");
+        assertThat(listener.allDataRead).isTrue();
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/signin");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Reads while the stream is ready, as a non-blocking reader does
+    private static final class RecordingListener implements ReadListener {
+        private final ServletInputStream in;
+        private final ByteArrayOutputStream read = new ByteArrayOutputStream();
+        private boolean allDataRead;
+        private Throwable error;
+
+        private RecordingListener(ServletInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            byte[] buffer = new byte[3];
+            while (in.isReady() && !in.isFinished()) {
+                int n = in.read(buffer);
+                if (n < 0) {
+                    break;
+                }
+                read.write(buffer, 0, n);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            allDataRead = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        private String body() {
+            return read.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class ListenableInputStream extends ServletInputStream {
+        private final ByteArrayInputStream in;
+        private ReadListener listener;
+
+        private ListenableInputStream(String body) {
+            this.in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+    }
+}
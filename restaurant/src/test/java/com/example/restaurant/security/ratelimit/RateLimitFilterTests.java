@@ -0,0 +1,129 @@
+package com.example.restaurant.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final RateLimitFilter filter = new RateLimitFilter();
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("restaurant.app.rateLimit.auth.perSecond", "0.001")
+                .withProperty("restaurant.app.rateLimit.auth.burst", "2")
+                .withProperty("restaurant.app.rateLimit.auth.ip.perSecond", "0.001")
+                .withProperty("restaurant.app.rateLimit.auth.ip.burst", "5");
+        ReflectionTestUtils.setField(rateLimiter, "environment", environment);
+        ReflectionTestUtils.setField(rateLimiter, "defaultPerSecond", 20.0);
+        ReflectionTestUtils.setField(rateLimiter, "defaultBurst", 40);
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 1000);
+        rateLimiter.init();
+        ReflectionTestUtils.setField(filter, "rateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @Test
+    void signInsFromOneAddressAreLimitedPerUsername() throws Exception {
+        assertThat(signIn("10.0.0.1", "alice")).isEqualTo(200);
+        assertThat(signIn("10.0.0.1", "alice")).isEqualTo(200);
+        assertThat(signIn("10.0.0.1", "alice")).isEqualTo(429);
+
+        // Another account behind the same NAT has its own budget
+        assertThat(signIn("10.0.0.1", "bob")).isEqualTo(200);
+        // The same account from another address too
+        assertThat(signIn("10.0.0.2", "alice")).isEqualTo(200);
+    }
+
+    @Test
+    void oneAddressCannotSprayUsernamesPastTheIpCeiling() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(signIn("10.0.0.1", "user" + i)).isEqualTo(200);
+        }
+        assertThat(signIn("10.0.0.1", "user5")).isEqualTo(429);
+    }
+
+    @Test
+    void signInsStayLimitedWhenTheBucketTableIsFull() throws Exception {
+        // Each sign-in from a new address takes two buckets: auth.ip and auth
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 10);
+        for (int i = 1; i <= 5; i++) {
+            assertThat(signIn("10.0.1." + i, "user" + i)).isEqualTo(200);
+        }
+        assertThat(rateLimiter.getTrackedKeys()).isEqualTo(10);
+
+        assertThat(signIn("10.0.2.1", "victim")).isEqualTo(429);
+        assertThat(rateLimiter.getRejectedCount(RateLimiter.AUTH_IP)).isEqualTo(1);
+        // Other groups still let untracked clients through
+        MockHttpServletRequest menu = new MockHttpServletRequest("GET", "/api/menu");
+        menu.setRemoteAddr("10.0.2.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(menu, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(rateLimiter.getUntrackedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullTableMakesRoomFromIdleSignInBuckets() throws Exception {
+        RateLimiter fast = new RateLimiter();
+        ReflectionTestUtils.setField(fast, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(fast, "defaultPerSecond", 1000.0);
+        ReflectionTestUtils.setField(fast, "defaultBurst", 1);
+        ReflectionTestUtils.setField(fast, "maxKeys", 2);
+        fast.init();
+        assertThat(fast.tryAcquire(RateLimiter.AUTH, "a")).isZero();
+        assertThat(fast.tryAcquire(RateLimiter.AUTH, "b")).isZero();
+
+        // Both buckets refill within a millisecond; the on-demand sweep drops them
+        Thread.sleep(150);
+        assertThat(fast.tryAcquire(RateLimiter.AUTH, "c")).isZero();
+        assertThat(fast.getTrackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void controllerStillReadsTheWholeBody() throws Exception {
+        String body = "{\"username\":\"alice\",\"password\":\"" + "x".repeat(RateLimitFilter.MAX_SIGNIN_BODY) + "\"}";
+        MockHttpServletRequest request = request("10.0.0.1", body);
+        String[] seen = new String[1];
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                seen[0] = StreamUtils.copyToString(req.getInputStream(), StandardCharsets.UTF_8);
+            }
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(seen[0]).isEqualTo(body);
+    }
+
+    private int signIn(String ip, String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(ip, "{\"username\":\"" + username + "\",\"password\":\"secret\"}"), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/signin");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.IdempotencyRecord;
+import com.example.restaurant.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTests {
+
+    private static final byte[] CREATED = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final IdempotencyRecordRepository recordRepository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyStore store = new IdempotencyStore();
+
+    @BeforeEach
+    void setUp() {
+        when(recordRepository.findById(anyString())).thenReturn(Optional.empty());
+        ReflectionTestUtils.setField(store, "recordRepository", recordRepository);
+        ReflectionTestUtils.setField(store, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+        ReflectionTestUtils.setField(store, "persistent", false);
+    }
+
+    @Test
+    void completedKeyReplaysTheStoredResponse() {
+        assertThat(store.begin("alice:k1", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+        store.complete("alice:k1", 201, CREATED);
+
+        IdempotencyStore.Claim retry = store.begin("alice:k1", "hash");
+        assertThat(retry.getOutcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+        assertThat(retry.getEntry().getStatusCode()).isEqualTo(201);
+        assertThat(retry.getEntry().getBody()).isEqualTo(CREATED);
+    }
+
+    @Test
+    void duplicateWhileRunningIsInProgressAndAbandonFreesTheKey() {
+        store.begin("alice:k1", "hash");
+
+        assertThat(store.begin("alice:k1", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.IN_PROGRESS);
+
+        store.abandon("alice:k1");
+        assertThat(store.begin("alice:k1", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() {
+        store.begin("alice:k1", "hash");
+        store.complete("alice:k1", 201, CREATED);
+
+        assertThat(store.begin("alice:k1", "other").getOutcome()).isEqualTo(IdempotencyStore.Outcome.KEY_REUSED);
+        // Keys are scoped per caller
+        assertThat(store.begin("bob:k1", "other").getOutcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+    }
+
+    @Test
+    void expiredKeyRunsAgain() throws Exception {
+        ReflectionTestUtils.setField(store, "ttlMs", 1L);
+        store.begin("alice:k1", "hash");
+        store.complete("alice:k1", 201, CREATED);
+        Thread.sleep(5);
+
+        assertThat(store.begin("alice:k1", "other").getOutcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+
+        store.begin("alice:k2", "hash");
+        Thread.sleep(5);
+        store.evictExpired();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void fullStoreEvictsCompletedKeysButNeverInFlightOnes() {
+        ReflectionTestUtils.setField(store, "maxEntries", 10);
+        for (int i = 0; i < 5; i++) {
+            store.begin("alice:done" + i, "hash");
+            store.complete("alice:done" + i, 201, CREATED);
+        }
+        for (int i = 0; i < 5; i++) {
+            store.begin("alice:running" + i, "hash");
+        }
+
+        assertThat(store.begin("alice:next", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.NEW);
+        assertThat(store.size()).isLessThanOrEqualTo(10);
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.begin("alice:running" + i, "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.IN_PROGRESS);
+        }
+
+        // Once only in-flight claims are left, new keys are refused rather than growing past the cap
+        int admitted = 0;
+        while (store.begin("alice:fill" + admitted, "hash").getOutcome() == IdempotencyStore.Outcome.NEW) {
+            admitted++;
+            assertThat(store.size()).isLessThanOrEqualTo(10);
+        }
+        assertThat(admitted).isEqualTo(4);
+        assertThat(store.begin("alice:refused", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.FULL);
+        assertThat(store.size()).isEqualTo(10);
+        // A key already held is still answered
+        assertThat(store.begin("alice:running0", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.IN_PROGRESS);
+    }
+
+    @Test
+    void persistedKeyReplaysAfterRestart() {
+        ReflectionTestUtils.setField(store, "persistent", true);
+        when(recordRepository.findById("alice:k1")).thenReturn(Optional.of(
+                new IdempotencyRecord("alice:k1", "hash", 201, CREATED, LocalDateTime.now().plusHours(1))));
+
+        IdempotencyStore.Claim claim = store.begin("alice:k1", "hash");
+
+        assertThat(claim.getOutcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+        assertThat(claim.getEntry().getBody()).isEqualTo(CREATED);
+        assertThat(store.begin("alice:k1", "other").getOutcome()).isEqualTo(IdempotencyStore.Outcome.KEY_REUSED);
+    }
+
+    @Test
+    void failedSaveStillReplaysFromMemory() {
+        ReflectionTestUtils.setField(store, "persistent", true);
+        when(recordRepository.save(any())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        store.begin("alice:k1", "hash");
+
+        store.complete("alice:k1", 201, CREATED);
+
+        assertThat(store.getPersistFailureCount()).isEqualTo(1);
+        assertThat(store.begin("alice:k1", "hash").getOutcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuCatalogCacheTests {
+
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final MenuCatalogCache cache = new MenuCatalogCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "menuItemRepository", menuItemRepository);
+    }
+
+    @Test
+    void rebuildsOnceAndServesTheSnapshotUntilInvalidated() {
+        when(menuItemRepository.findAll()).thenReturn(List.of(item(1L, "Soup")), List.of(item(1L, "Stew")));
+
+        MenuCatalog first = cache.get();
+        assertThat(cache.get()).isSameAs(first);
+        verify(menuItemRepository, times(1)).findAll();
+
+        cache.invalidate();
+
+        MenuCatalog second = cache.get();
+        assertThat(second.getItem(1L).getName()).isEqualTo("Stew");
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(cache.getRebuildCount()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationDuringRebuildIsNotLost() {
+        // The menu changes (and is invalidated) while the rebuild is still reading the old rows
+        when(menuItemRepository.findAll())
+                .thenAnswer(call -> {
+                    cache.invalidate();
+                    return List.of(item(1L, "Soup"));
+                })
+                .thenReturn(List.of(item(1L, "Stew")));
+
+        // The reader that started the rebuild still gets what it read...
+        assertThat(cache.get().getItem(1L).getName()).isEqualTo("Soup");
+        // ...but the stale snapshot is never published, so the next reader rebuilds
+        assertThat(cache.get().getItem(1L).getName()).isEqualTo("Stew");
+        assertThat(cache.get().getItem(1L).getName()).isEqualTo("Stew");
+        verify(menuItemRepository, times(2)).findAll();
+    }
+
+    @Test
+    void lastInvalidationWinsUnderConcurrentRebuilds() throws Exception {
+        when(menuItemRepository.findAll()).thenAnswer(call -> {
+            Thread.yield();
+            return List.of(item(1L, "Soup"));
+        });
+        int invalidations = 2_000;
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    cache.get();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int i = 0; i < invalidations; i++) {
+            cache.invalidate();
+            Thread.yield();
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        // A catalog read before the last invalidation must not have been published after it
+        assertThat(cache.get().getVersion()).isEqualTo(invalidations);
+    }
+
+    private static MenuItem item(Long id, String name) {
+        MenuItem item = new MenuItem();
+        item.setId(id);
+        item.setName(name);
+        item.setCategory("Mains");
+        return item;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.event.MenuChangedEvent;
+import com.example.restaurant.model.MenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSearchIndexTests {
+
+    private final MenuSearchIndex index = new MenuSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                item(1L, "Margherita", "Pizza", "Tomato, mozzarella and basil"),
+                item(2L, "Pepperoni", "Pizza", "Tomato and spicy salami"),
+                item(3L, "Chicken Tikka", "Curry", "Chicken in a creamy tomato sauce"),
+                item(4L, "Crème Brûlée", "Dessert", "Vanilla custard"),
+                item(5L, "Basil Lemonade", "Drinks", null)));
+    }
+
+    @Test
+    void tokenizeLowerCasesSplitsAndDropsStopWords() {
+        assertThat(MenuSearchIndex.tokenize("Chicken with RICE & peas, 2 pcs")).containsExactly("chicken", "rice", "peas", "2", "pcs");
+        assertThat(MenuSearchIndex.tokenize(" -- ")).isEmpty();
+        assertThat(MenuSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void accentsAreFolded() {
+        assertThat(MenuSearchIndex.tokenize("Crème Brûlée")).containsExactly("creme", "brulee");
+        assertThat(names(index.search("creme brulee", null, 10))).containsExactly("Crème Brûlée");
+        assertThat(names(index.search("BRÛLÉE", null, 10))).containsExactly("Crème Brûlée");
+    }
+
+    @Test
+    void prefixAndTypoMatches() {
+        assertThat(names(index.search("marg", null, 10))).containsExactly("Margherita");
+        assertThat(names(index.search("margarita", null, 10))).containsExactly("Margherita");
+        assertThat(names(index.search("chiken", null, 10))).containsExactly("Chicken Tikka");
+        // Short terms only match exactly or as a prefix, never fuzzily
+        assertThat(index.search("tik", null, 10)).hasSize(1);
+        assertThat(index.search("x", null, 10)).isEmpty();
+    }
+
+    @Test
+    void everyTermMustMatchAndNameOutranksDescription() {
+        assertThat(names(index.search("tomato pizza", null, 10))).containsExactly("Margherita", "Pepperoni");
+        assertThat(index.search("tomato lemonade", null, 10)).isEmpty();
+        // "basil" is in one item's name and another's description
+        assertThat(names(index.search("basil", null, 10))).containsExactly("Basil Lemonade", "Margherita");
+        assertThat(names(index.search("basil", "pizza", 10))).containsExactly("Margherita");
+        assertThat(names(index.search("tomato", null, 1))).hasSize(1);
+    }
+
+    @Test
+    void menuChangesAreAppliedIncrementally() {
+        index.onMenuChanged(MenuChangedEvent.upserted(item(2L, "Diavola", "Pizza", "Spicy salami")));
+        index.onMenuChanged(MenuChangedEvent.upserted(item(6L, "Quattro Formaggi", "Pizza", "Four cheeses")));
+        index.onMenuChanged(MenuChangedEvent.removed(3L));
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.search("pepperoni", null, 10)).isEmpty();
+        assertThat(names(index.search("diavola", null, 10))).containsExactly("Diavola");
+        assertThat(names(index.search("formaggi", null, 10))).containsExactly("Quattro Formaggi");
+        assertThat(index.search("chicken", null, 10)).isEmpty();
+        // The freed slot is reused without leaking the old item's terms
+        index.onMenuChanged(MenuChangedEvent.upserted(item(7L, "Korma", "Curry", null)));
+        assertThat(names(index.search("curry", null, 10))).containsExactly("Korma");
+    }
+
+    @Test
+    void concurrentSearchesDoNotShareScratchState() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<List<String>>> searches = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String query = i % 2 == 0 ? "tomato pizza" : "basil";
+                searches.add(() -> names(index.search(query, null, 10)));
+            }
+            List<Future<List<String>>> results = pool.invokeAll(searches);
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).containsExactlyElementsOf(i % 2 == 0
+                        ? List.of("Margherita", "Pepperoni") : List.of("Basil Lemonade", "Margherita"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static List<String> names(List<MenuItem> items) {
+        return items.stream().map(MenuItem::getName).toList();
+    }
+
+    private static MenuItem item(Long id, String name, String category, String description) {
+        MenuItem item = new MenuItem();
+        item.setId(id);
+        item.setName(name);
+        item.setCategory(category);
+        item.setDescription(description);
+        return item;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.OrderLineView;
+import com.example.restaurant.dto.OrderSummaryView;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.repository.OrderExportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderExportServiceTests {
+
+    @Test
+    void everyTextColumnIsQuotedAndGuardedAgainstFormulas() throws IOException {
+        OrderSummaryView order = new OrderSummaryView(7L, "=HYPERLINK(\"x\")", LocalDateTime.of(2024, 3, 1, 12, 30),
+                Money.ofCents(1250), "@SUM(A1)", List.of(new OrderLineView(9L, 3L, "Soup, large", 2, Money.ofCents(625))));
+
+        String csv = export(order);
+
+        assertThat(csv.split("\r\n")[1]).isEqualTo(
+                "7,2024-03-01T12:30:00,\"'=HYPERLINK(\"\"x\"\")\",\"'@SUM(A1)\",12.50,9,3,\"Soup, large\",2,6.25");
+    }
+
+    private static String export(OrderSummaryView order) throws IOException {
+        OrderExportService service = new OrderExportService();
+        ReflectionTestUtils.setField(service, "orderExportRepository", new OrderExportRepository() {
+            @Override
+            public long forEachOrder(String status, LocalDateTime from, LocalDateTime to, Consumer<OrderSummaryView> consumer) {
+                consumer.accept(order);
+                return 1;
+            }
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(OrderExportService.Format.CSV, null, null, null, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.IntakeStatusView;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Journal recovery, compaction and failure handling of the async intake, against a mocked OrderService.
+ */
+class OrderIntakeServiceTests {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final MenuCatalogCache menuCatalogCache = mock(MenuCatalogCache.class);
+    private final AtomicLong ids = new AtomicLong(1000);
+
+    private OrderIntakeService intake;
+    private Path journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = dir.resolve("intake.journal");
+        MenuItem dish = new MenuItem();
+        dish.setId(1L);
+        dish.setName("Dish");
+        dish.setPrice(Money.ofCents(500));
+        when(menuCatalogCache.get()).thenReturn(new MenuCatalog(1, List.of(dish)));
+        when(orderRepository.findIdsByIntakeReferences(anyCollection())).thenReturn(List.of());
+        when(orderService.createOrders(anyList())).thenAnswer(call -> {
+            List<CustomerOrder> saved = new ArrayList<>();
+            for (CustomerOrder order : call.<List<CustomerOrder>>getArgument(0)) {
+                saved.add(saved(order));
+            }
+            return saved;
+        });
+        when(orderService.createOrder(any())).thenAnswer(call -> saved(call.getArgument(0)));
+
+        intake = new OrderIntakeService();
+        ReflectionTestUtils.setField(intake, "orderService", orderService);
+        ReflectionTestUtils.setField(intake, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(intake, "menuCatalogCache", menuCatalogCache);
+        ReflectionTestUtils.setField(intake, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(intake, "queueCapacity", 100);
+        ReflectionTestUtils.setField(intake, "batchSize", 10);
+        ReflectionTestUtils.setField(intake, "journalPath", journal.toString());
+        ReflectionTestUtils.setField(intake, "fsync", true);
+        ReflectionTestUtils.setField(intake, "journalCompactBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(intake, "statusRetention", 1000);
+        ReflectionTestUtils.setField(intake, "retryBackoffMs", 10L);
+        intake.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        intake.shutdown();
+    }
+
+    @Test
+    void replaysOnlyUnfinishedOrders() throws Exception {
+        writeJournal(enq("acked"), enq("failed"), enq("open"), ack("acked", 1L), fail("failed"));
+        Files.writeString(journal, "{\"type\":\"EN", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        intake.start();
+
+        assertThat(awaitStatus("open").getStatus()).isEqualTo(OrderIntakeService.CREATED);
+        verify(orderService).createOrders(argThat(orders -> orders.size() == 1 && "open".equals(orders.get(0).getIntakeReference())));
+        assertThat(intake.getStatus("acked")).isNull();
+        assertThat(intake.getStatus("failed")).isNull();
+    }
+
+    @Test
+    void replaySkipsOrdersAlreadyInTheDatabase() throws Exception {
+        writeJournal(enq("committed"));
+        List<Object[]> written = new ArrayList<>();
+        written.add(new Object[]{"committed", 42L});
+        when(orderRepository.findIdsByIntakeReferences(anyCollection())).thenReturn(written);
+
+        intake.start();
+
+        IntakeStatusView status = intake.getStatus("committed");
+        assertThat(status.getStatus()).isEqualTo(OrderIntakeService.CREATED);
+        assertThat(status.getOrderId()).isEqualTo(42L);
+        verify(orderService, never()).createOrders(anyList());
+    }
+
+    @Test
+    void startupCompactsJournalToUnfinishedOrders() throws Exception {
+        writeJournal(enq("acked"), ack("acked", 1L), enq("failed"), fail("failed"), enq("open"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(call -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(saved(call.<List<CustomerOrder>>getArgument(0).get(0)));
+        });
+
+        intake.start();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<OrderIntakeService.JournalRecord> records = readJournal();
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getType()).isEqualTo("ENQ");
+        assertThat(records.get(0).getRef()).isEqualTo("open");
+        release.countDown();
+    }
+
+    @Test
+    void compactsJournalOnceItGrowsPastTheLimit() throws Exception {
+        ReflectionTestUtils.setField(intake, "journalCompactBytes", 1L);
+        intake.start();
+
+        for (int i = 0; i < 3; i++) {
+            String reference = intake.submit(request("Guest " + i));
+            assertThat(awaitStatus(reference).getStatus()).isEqualTo(OrderIntakeService.CREATED);
+        }
+
+        // Every order is acknowledged, so compaction after the last ACK leaves nothing to replay
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!readJournal().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(readJournal()).isEmpty();
+    }
+
+    @Test
+    void poisonOrderIsFailedAndTheRestOfTheGroupIsWritten() throws Exception {
+        doThrow(new DataIntegrityViolationException("Data too long for column 'customer_name'"))
+                .when(orderService).createOrders(anyList());
+        doAnswer(call -> {
+            CustomerOrder order = call.getArgument(0);
+            if ("Poison".equals(order.getCustomerName())) {
+                throw new DataIntegrityViolationException("Data too long for column 'customer_name'");
+            }
+            return saved(order);
+        }).when(orderService).createOrder(any());
+        intake.start();
+
+        String good = intake.submit(request("Guest"));
+        String poison = intake.submit(request("Poison"));
+        String after = intake.submit(request("Guest"));
+
+        assertThat(awaitStatus(poison).getStatus()).isEqualTo(OrderIntakeService.FAILED);
+        assertThat(awaitStatus(good).getStatus()).isEqualTo(OrderIntakeService.CREATED);
+        assertThat(awaitStatus(after).getStatus()).isEqualTo(OrderIntakeService.CREATED);
+        assertThat(intake.getFailedCount()).isEqualTo(1);
+        assertThat(readJournal()).anyMatch(record -> "FAIL".equals(record.getType()) && poison.equals(record.getRef()));
+    }
+
+    @Test
+    void transientFailuresAreRetried() throws Exception {
+        when(orderService.createOrders(anyList()))
+                .thenThrow(new TransientDataAccessResourceException("Lock wait timeout exceeded"))
+                .thenAnswer(call -> List.of(saved(call.<List<CustomerOrder>>getArgument(0).get(0))));
+        intake.start();
+
+        String reference = intake.submit(request("Guest"));
+
+        assertThat(awaitStatus(reference).getStatus()).isEqualTo(OrderIntakeService.CREATED);
+        verify(orderService, times(2)).createOrders(anyList());
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void rejectsCustomerNamesLongerThanTheColumn() throws Exception {
+        intake.start();
+
+        assertThatThrownBy(() -> intake.submit(request("x".repeat(CustomerOrder.CUSTOMER_NAME_LENGTH + 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CustomerOrder saved(CustomerOrder order) {
+        order.setId(ids.incrementAndGet());
+        return order;
+    }
+
+    private IntakeStatusView awaitStatus(String reference) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            IntakeStatusView status = intake.getStatus(reference);
+            if (status != null && !OrderIntakeService.QUEUED.equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return intake.getStatus(reference);
+    }
+
+    private static CustomerOrder request(String customerName) {
+        CustomerOrder order = new CustomerOrder();
+        order.setCustomerName(customerName);
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(1L);
+        OrderItem item = new OrderItem();
+        item.setMenuItem(menuItem);
+        item.setQuantity(1);
+        order.addOrderItem(item);
+        return order;
+    }
+
+    private static OrderIntakeService.JournalRecord enq(String reference) {
+        OrderIntakeService.JournalRecord record = new OrderIntakeService.JournalRecord();
+        record.setType("ENQ");
+        record.setRef(reference);
+        record.setOrder(request("Guest"));
+        return record;
+    }
+
+    private static OrderIntakeService.JournalRecord ack(String reference, Long orderId) {
+        OrderIntakeService.JournalRecord record = new OrderIntakeService.JournalRecord();
+        record.setType("ACK");
+        record.setRef(reference);
+        record.setOrderId(orderId);
+        return record;
+    }
+
+    private static OrderIntakeService.JournalRecord fail(String reference) {
+        OrderIntakeService.JournalRecord record = new OrderIntakeService.JournalRecord();
+        record.setType("FAIL");
+        record.setRef(reference);
+        record.setError("rejected");
+        return record;
+    }
+
+    private void writeJournal(OrderIntakeService.JournalRecord... records) throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (OrderIntakeService.JournalRecord record : records) {
+            lines.append(objectMapper.writeValueAsString(record)).append('\n');
+        }
+        Files.writeString(journal, lines, StandardCharsets.UTF_8);
+    }
+
+    private List<OrderIntakeService.JournalRecord> readJournal() throws Exception {
+        List<OrderIntakeService.JournalRecord> records = new ArrayList<>();
+        for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                records.add(objectMapper.readValue(line, OrderIntakeService.JournalRecord.class));
+            }
+        }
+        return records;
+    }
+}
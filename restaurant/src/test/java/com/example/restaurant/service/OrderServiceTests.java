@@ -0,0 +1,67 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.OrderStatusView;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retry accounting of {@link OrderService#updateOrderStatus} when the versioned UPDATE keeps missing.
+ */
+class OrderServiceTests {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderService orderService = new OrderService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(orderService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(orderService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(orderService, "statusUpdateAttempts", 3);
+        orderService.init();
+        when(orderRepository.findStatusViewById(1L)).thenAnswer(call -> Optional.of(
+                new OrderStatusView(1L, "Guest", null, null, OrderStatus.PENDING, 4L)));
+    }
+
+    @Test
+    void conflictThenSuccessCountsOneRetry() {
+        when(orderRepository.updateStatusIfVersion(eq(1L), any(), anyLong())).thenReturn(0, 1);
+
+        OrderStatusView updated = orderService.updateOrderStatus(1L, "PREPARING");
+
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(updated.getVersion()).isEqualTo(5L);
+        assertThat(orderService.getStatusConflictCount()).isEqualTo(1);
+        assertThat(orderService.getStatusConflictsExhaustedCount()).isZero();
+    }
+
+    @Test
+    void lastFailedAttemptIsCountedOnlyAsExhausted() {
+        when(orderRepository.updateStatusIfVersion(eq(1L), any(), anyLong())).thenReturn(0);
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(1L, "PREPARING"))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(orderRepository, times(3)).updateStatusIfVersion(eq(1L), any(), anyLong());
+        // Three attempts, two retries
+        assertThat(orderService.getStatusConflictCount()).isEqualTo(2);
+        assertThat(orderService.getStatusConflictsExhaustedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.OrderStatusView;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.MenuItemRepository;
+import com.example.restaurant.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent status changes against one database: exactly one of two conflicting transitions wins,
+ * and a repeated status never writes twice.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statusrace;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=-1"})
+class OrderStatusUpdateTests {
+
+    private static final int ORDERS = 40;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+    private MenuItem dish;
+
+    @BeforeEach
+    void seedMenu() {
+        MenuItem item = new MenuItem();
+        item.setName("Soup");
+        item.setCategory("Mains");
+        item.setPrice(Money.ofCents(450));
+        dish = menuItemRepository.save(item);
+    }
+
+    @AfterEach
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void readyAndCancelledRaceHasOneWinnerPerOrder() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Long id = createOrder();
+            orderService.updateOrderStatus(id, "PREPARING");
+            ids.add(id);
+        }
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Callable<Object>> updates = new ArrayList<>();
+        for (Long id : ids) {
+            for (String status : new String[]{"READY", "CANCELLED"}) {
+                updates.add(() -> {
+                    try {
+                        orderService.updateOrderStatus(id, status);
+                        applied.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // READY and CANCELLED are both final for the other: the loser sees a disallowed transition
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        await(pool.invokeAll(updates));
+
+        assertThat(applied.get()).isEqualTo(ORDERS);
+        assertThat(rejected.get()).isEqualTo(ORDERS);
+        for (Long id : ids) {
+            OrderStatusView order = orderRepository.findStatusViewById(id).orElseThrow();
+            assertThat(order.getStatus()).isIn(OrderStatus.READY, OrderStatus.CANCELLED);
+            // Created, PREPARING, then exactly one of the two
+            assertThat(order.getVersion()).isEqualTo(2L);
+        }
+        assertThat(orderService.getStatusConflictsExhaustedCount()).isZero();
+    }
+
+    @Test
+    void repeatedStatusIsAppliedOnce() throws Exception {
+        Long id = createOrder();
+
+        List<Callable<OrderStatusView>> updates = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            updates.add(() -> orderService.updateOrderStatus(id, "PREPARING"));
+        }
+        for (Future<OrderStatusView> update : pool.invokeAll(updates)) {
+            assertThat(update.get().getStatus()).isEqualTo(OrderStatus.PREPARING);
+        }
+
+        OrderStatusView order = orderRepository.findStatusViewById(id).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(order.getVersion()).isEqualTo(1L);
+    }
+
+    private Long createOrder() {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(dish.getId());
+        OrderItem item = new OrderItem();
+        item.setMenuItem(menuItem);
+        item.setQuantity(1);
+        CustomerOrder order = new CustomerOrder();
+        order.setCustomerName("Race");
+        order.addOrderItem(item);
+        return orderService.createOrder(order).getId();
+    }
+
+    private static void await(List<Future<Object>> futures) throws Exception {
+        for (Future<Object> future : futures) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.restaurant.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStreamServiceTests {
+
+    private final OrderStreamService orderStreamService = new OrderStreamService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderStreamService, "replaySize", 16);
+        ReflectionTestUtils.setField(orderStreamService, "subscriberQueueSize", 16);
+        ReflectionTestUtils.setField(orderStreamService, "emitterTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(orderStreamService, "maxSubscribers", 3);
+        ReflectionTestUtils.setField(orderStreamService, "senderThreads", 2);
+        orderStreamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderStreamService.shutdown();
+    }
+
+    @Test
+    void subscriptionsPastTheCapAreRefused() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(orderStreamService.subscribe(null)).isPresent();
+        }
+
+        assertThat(orderStreamService.subscribe(null)).isEmpty();
+        assertThat(orderStreamService.subscribe("stale-7")).isEmpty();
+        assertThat(orderStreamService.getSubscriberCount()).isEqualTo(3);
+        assertThat(orderStreamService.getRejectedSubscriptionCount()).isEqualTo(2);
+    }
+}
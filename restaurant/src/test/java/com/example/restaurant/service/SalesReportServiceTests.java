@@ -0,0 +1,202 @@
+package com.example.restaurant.service;
+
+import com.example.restaurant.dto.ItemSalesView;
+import com.example.restaurant.dto.SalesTotalsView;
+import com.example.restaurant.model.CustomerOrder;
+import com.example.restaurant.model.MenuItem;
+import com.example.restaurant.model.Money;
+import com.example.restaurant.model.OrderItem;
+import com.example.restaurant.model.OrderStatus;
+import com.example.restaurant.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Summary deltas for created, cancelled and imported orders, checked against a rebuild from customer_orders.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:salesreport;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "management.server.port=-1"})
+class SalesReportServiceTests {
+
+    private static final LocalDate HISTORY = LocalDate.of(2020, 1, 5);
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MenuItem soup;
+    private MenuItem steak;
+
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM customer_orders");
+        // Empties both summary tables and the in-memory rollup
+        salesReportService.rebuild();
+        soup = menuItem("Soup", 450);
+        steak = menuItem("Steak", 1999);
+    }
+
+    @Test
+    void createdOrdersAddToHourDayAndItemTotals() {
+        orderService.createOrder(order(soup, 2, steak, 1));
+        orderService.createOrder(order(soup, 1));
+
+        SalesTotalsView today = today();
+        assertThat(today.getOrders()).isEqualTo(2);
+        assertThat(today.getItemQuantity()).isEqualTo(4);
+        assertThat(today.getRevenue()).isEqualTo(Money.ofCents(3 * 450 + 1999));
+        assertThat(today.getCancelledOrders()).isZero();
+        assertThat(salesReportService.hourlyTotals(LocalDate.now())).singleElement()
+                .satisfies(hour -> assertThat(hour.getOrders()).isEqualTo(2));
+
+        ItemSalesView soupSales = item(LocalDate.now(), soup);
+        assertThat(soupSales.getOrders()).isEqualTo(2);
+        assertThat(soupSales.getQuantity()).isEqualTo(3);
+        assertThat(soupSales.getRevenue()).isEqualTo(Money.ofCents(3 * 450));
+    }
+
+    @Test
+    void cancellationMovesTheOrderOutOfTheTotals() {
+        orderService.createOrder(order(soup, 1));
+        CustomerOrder cancelled = orderService.createOrder(order(soup, 2, steak, 1));
+
+        orderService.updateOrderStatus(cancelled.getId(), "CANCELLED");
+        // Re-sending the same status must not subtract it twice
+        orderService.updateOrderStatus(cancelled.getId(), "CANCELLED");
+
+        SalesTotalsView today = today();
+        assertThat(today.getOrders()).isEqualTo(1);
+        assertThat(today.getItemQuantity()).isEqualTo(1);
+        assertThat(today.getRevenue()).isEqualTo(Money.ofCents(450));
+        assertThat(today.getCancelledOrders()).isEqualTo(1);
+        assertThat(item(LocalDate.now(), steak).getQuantity()).isZero();
+    }
+
+    @Test
+    void importedOrdersAreCountedInTheHourTheyWerePlaced() {
+        CustomerOrder served = order(steak, 2);
+        served.setOrderTime(HISTORY.atTime(12, 34));
+        CustomerOrder cancelled = order(soup, 5);
+        cancelled.setOrderTime(HISTORY.atTime(12, 59));
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        CustomerOrder evening = order(soup, 1);
+        evening.setOrderTime(HISTORY.atTime(19, 5));
+
+        orderImportService.importOrders(List.of(served, cancelled, evening));
+
+        List<SalesTotalsView> hours = salesReportService.hourlyTotals(HISTORY);
+        assertThat(hours).extracting(SalesTotalsView::getPeriod).containsExactly("2020-01-05T12:00", "2020-01-05T19:00");
+        assertThat(hours.get(0).getOrders()).isEqualTo(1);
+        assertThat(hours.get(0).getItemQuantity()).isEqualTo(2);
+        assertThat(hours.get(0).getRevenue()).isEqualTo(Money.ofCents(2 * 1999));
+        assertThat(hours.get(0).getCancelledOrders()).isEqualTo(1);
+        assertThat(salesReportService.dailyTotals(HISTORY, HISTORY)).singleElement()
+                .satisfies(day -> assertThat(day.getRevenue()).isEqualTo(Money.ofCents(2 * 1999 + 450)));
+    }
+
+    @Test
+    void topItemsReturnsTheBestSellersUpToTheLimit() {
+        MenuItem bread = menuItem("Bread", 250);
+        orderService.createOrder(order(soup, 3, steak, 1, bread, 2));
+
+        assertThat(salesReportService.topItems(LocalDate.now(), LocalDate.now(), 2))
+                .extracting(ItemSalesView::getMenuItemId).containsExactly(soup.getId(), bread.getId());
+    }
+
+    @Test
+    void rebuildReproducesTheIncrementalTotals() {
+        CustomerOrder imported = order(steak, 1, soup, 3);
+        imported.setOrderTime(HISTORY.atTime(20, 15));
+        orderImportService.importOrders(List.of(imported));
+        orderService.createOrder(order(soup, 2));
+        CustomerOrder cancelled = orderService.createOrder(order(steak, 1));
+        orderService.updateOrderStatus(cancelled.getId(), "CANCELLED");
+
+        List<SalesTotalsView> days = salesReportService.dailyTotals(HISTORY, LocalDate.now());
+        List<SalesTotalsView> hours = salesReportService.hourlyTotals(LocalDate.now());
+        List<ItemSalesView> items = salesReportService.topItems(HISTORY, LocalDate.now(), 10);
+
+        assertThat(salesReportService.rebuild()).isEqualTo(3);
+
+        assertThat(salesReportService.dailyTotals(HISTORY, LocalDate.now())).isEqualTo(days);
+        assertThat(salesReportService.hourlyTotals(LocalDate.now())).isEqualTo(hours);
+        assertThat(salesReportService.topItems(HISTORY, LocalDate.now(), 10)).isEqualTo(items);
+    }
+
+    @Test
+    void ordersWithAnUnknownStatusStayOutOfTheTotalsUntilResolved() {
+        orderService.createOrder(order(soup, 1));
+        CustomerOrder legacy = orderService.createOrder(order(steak, 2));
+        jdbcTemplate.update("UPDATE customer_orders SET status = 'delivered' WHERE id = ?", legacy.getId());
+
+        salesReportService.rebuild();
+        assertThat(today().getOrders()).isEqualTo(1);
+        assertThat(today().getRevenue()).isEqualTo(Money.ofCents(450));
+        assertThat(item(LocalDate.now(), steak).getQuantity()).isZero();
+
+        orderService.updateOrderStatus(legacy.getId(), "COMPLETED");
+        assertThat(today().getOrders()).isEqualTo(2);
+        assertThat(today().getRevenue()).isEqualTo(Money.ofCents(450 + 2 * 1999));
+        assertThat(item(LocalDate.now(), steak).getQuantity()).isEqualTo(2);
+    }
+
+    private SalesTotalsView today() {
+        return salesReportService.dailyTotals(LocalDate.now(), LocalDate.now()).get(0);
+    }
+
+    private ItemSalesView item(LocalDate day, MenuItem menuItem) {
+        return salesReportService.topItems(day, day, 10).stream()
+                .filter(item -> item.getMenuItemId().equals(menuItem.getId()))
+                .findFirst()
+                .orElse(new ItemSalesView(menuItem.getId(), menuItem.getName(), 0, 0, Money.ZERO));
+    }
+
+    private MenuItem menuItem(String name, long cents) {
+        MenuItem item = new MenuItem();
+        item.setName(name);
+        item.setCategory("Mains");
+        item.setPrice(Money.ofCents(cents));
+        return menuItemRepository.save(item);
+    }
+
+    // Alternating menu item and quantity
+    private static CustomerOrder order(Object... lines) {
+        CustomerOrder order = new CustomerOrder();
+        order.setCustomerName("Reports");
+        for (int i = 0; i < lines.length; i += 2) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setId(((MenuItem) lines[i]).getId());
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            item.setQuantity((Integer) lines[i + 1]);
+            order.addOrderItem(item);
+        }
+        return order;
+    }
+}